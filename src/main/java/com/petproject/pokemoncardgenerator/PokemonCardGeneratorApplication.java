@@ -1,15 +1,36 @@
 package com.petproject.pokemoncardgenerator;
 
+import java.util.Arrays;
+
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.petproject.pokemoncardgenerator.services.deck.DeckGenerator;
 
 @SpringBootApplication
-@EnableRetry
 public class PokemonCardGeneratorApplication {
 
 	public static void main(String[] args) {
+		if (args.length > 0 && DeckGenerator.COMMAND.equals(args[0])) {
+			generateDeck(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		SpringApplication.run(PokemonCardGeneratorApplication.class, args);
 	}
 
+	/**
+	 * runs the generation pipeline without the web server and the bot, see {@link DeckGenerator}
+	 */
+	private static void generateDeck(String[] args) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(PokemonCardGeneratorApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("bot.enabled=false", "deck.enabled=true")
+				.run(args);
+		int exitCode = context.getBean(DeckGenerator.class).run();
+		System.exit(SpringApplication.exit(context, () -> exitCode));
+	}
+
 }
@@ -0,0 +1,135 @@
+package com.petproject.pokemoncardgenerator.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * rendered card, encoded once and shared by all send paths.
+ * The encoded bytes are not copied, neither on creation nor on reading, so they must never be modified.
+ */
+public final class EncodedCard {
+
+	private final byte[] data;
+	private final int length;
+	private final String format;
+	private final String mimeType;
+	private final int width;
+	private final int height;
+	private final String sha256;
+
+	private EncodedCard(Builder builder) {
+		this.data = builder.data;
+		this.length = builder.length;
+		this.format = builder.format;
+		this.mimeType = builder.mimeType;
+		this.width = builder.width;
+		this.height = builder.height;
+		this.sha256 = builder.sha256;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return new stream over the encoded bytes, every send needs its own one
+	 */
+	public InputStream openStream() {
+		return new ByteArrayInputStream(data, 0, length);
+	}
+
+	public void writeTo(OutputStream os) throws IOException {
+		os.write(data, 0, length);
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return image format name, e.g. "png"
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	public String getMimeType() {
+		return mimeType;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return lowercase hex SHA-256 of the encoded bytes
+	 */
+	public String getSha256() {
+		return sha256;
+	}
+
+	@Override
+	public String toString() {
+		return "EncodedCard{" + "format='" + format + '\'' + ", width=" + width + ", height=" + height + ", length="
+				+ length + ", sha256='" + sha256 + '\'' + '}';
+	}
+
+	public static final class Builder {
+
+		private byte[] data;
+		private int length;
+		private String format;
+		private String mimeType;
+		private int width;
+		private int height;
+		private String sha256;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param val encoded bytes, taken over without a copy
+		 * @param len number of valid bytes at the start of the array
+		 */
+		public Builder data(byte[] val, int len) {
+			data = val;
+			length = len;
+			return this;
+		}
+
+		public Builder format(String val) {
+			format = val;
+			return this;
+		}
+
+		public Builder mimeType(String val) {
+			mimeType = val;
+			return this;
+		}
+
+		public Builder width(int val) {
+			width = val;
+			return this;
+		}
+
+		public Builder height(int val) {
+			height = val;
+			return this;
+		}
+
+		public Builder sha256(String val) {
+			sha256 = val;
+			return this;
+		}
+
+		public EncodedCard build() {
+			return new EncodedCard(this);
+		}
+	}
+}
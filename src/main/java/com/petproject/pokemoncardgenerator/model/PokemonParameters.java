@@ -3,6 +3,7 @@ package com.petproject.pokemoncardgenerator.model;
 import java.util.Objects;
 
 import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+import com.petproject.pokemoncardgenerator.model.details.enums.TextGenerationMode;
 
 /**
  * Parameters, which user should set to generate a pokemon
@@ -11,6 +12,8 @@ public class PokemonParameters {
 
 	private PokemonElement element;
 	private String pokemonConcept;
+	// null for the configured default
+	private TextGenerationMode textMode;
 
 	public PokemonParameters() {
 	}
@@ -18,6 +21,7 @@ public class PokemonParameters {
 	private PokemonParameters(Builder builder) {
 		setElement(builder.element);
 		setPokemonConcept(builder.pokemonConcept);
+		setTextMode(builder.textMode);
 	}
 
 	public static Builder builder() {
@@ -32,9 +36,18 @@ public class PokemonParameters {
 		this.pokemonConcept = pokemonConcept;
 	}
 
+	public TextGenerationMode getTextMode() {
+		return textMode;
+	}
+
+	public void setTextMode(TextGenerationMode textMode) {
+		this.textMode = textMode;
+	}
+
 	@Override
 	public String toString() {
-		return "PokemonParameters{" + "element='" + element + '\'' + ", pokemonConcept='" + pokemonConcept + '\'' + '}';
+		return "PokemonParameters{" + "element='" + element + '\'' + ", pokemonConcept='" + pokemonConcept + '\''
+				+ ", textMode=" + textMode + '}';
 	}
 
 	public PokemonElement getElement() {
@@ -56,7 +69,7 @@ public class PokemonParameters {
 
 		PokemonParameters that = (PokemonParameters) o;
 
-		if (element != that.element) {
+		if (element != that.element || textMode != that.textMode) {
 			return false;
 		}
 		return Objects.equals(pokemonConcept, that.pokemonConcept);
@@ -66,6 +79,7 @@ public class PokemonParameters {
 	public int hashCode() {
 		int result = element != null ? element.hashCode() : 0;
 		result = 31 * result + (pokemonConcept != null ? pokemonConcept.hashCode() : 0);
+		result = 31 * result + (textMode != null ? textMode.hashCode() : 0);
 		return result;
 	}
 
@@ -73,6 +87,7 @@ public class PokemonParameters {
 
 		private PokemonElement element;
 		private String pokemonConcept;
+		private TextGenerationMode textMode;
 
 		private Builder() {
 		}
@@ -87,6 +102,11 @@ public class PokemonParameters {
 			return this;
 		}
 
+		public Builder textMode(TextGenerationMode val) {
+			textMode = val;
+			return this;
+		}
+
 		public PokemonParameters build() {
 			return new PokemonParameters(this);
 		}
@@ -0,0 +1,60 @@
+package com.petproject.pokemoncardgenerator.model.contentpool;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+
+/**
+ * content pool of Pokedex-style descriptions for the local text generation
+ */
+public class DescriptionContentPool {
+
+	private DescriptionContentPool() {
+	}
+
+	public static String getRandomHabit(PokemonElement element) {
+		List<String> habits = DescriptionContentPool.HABITS_BY_ELEMENT.getOrDefault(element,
+				DescriptionContentPool.HABITS_BY_ELEMENT.get(PokemonElement.NEUTRAL));
+		return habits.get(ThreadLocalRandom.current().nextInt(habits.size()));
+	}
+
+	public static String getRandomTemplate() {
+		return DescriptionContentPool.TEMPLATES.get(
+				ThreadLocalRandom.current().nextInt(DescriptionContentPool.TEMPLATES.size()));
+	}
+
+	/**
+	 * arguments: name, environment, habit, ability name
+	 */
+	public static final List<String> TEMPLATES = List.of( //
+			"%1$s lives in %2$s-like places and %3$s.", //
+			"Wild %1$s %3$s and uses %4$s when its home is threatened.", //
+			"In %2$s-like places %1$s %3$s.", //
+			"%1$s %3$s, and it is said to master %4$s.");
+
+	public static final Map<PokemonElement, List<String>> HABITS_BY_ELEMENT = Map.of( //
+			PokemonElement.NEUTRAL,
+			List.of("naps in sunny clearings for most of the day", "follows travelers out of pure curiosity",
+					"collects shiny pebbles for its nest", "greets its friends by bumping heads"), //
+			PokemonElement.FIRE,
+			List.of("warms its den by breathing tiny embers", "sleeps curled around hot stones",
+					"leaves scorched footprints wherever it runs", "roasts berries with the heat of its tail"), //
+			PokemonElement.WATER,
+			List.of("glides along currents without a splash", "hums softly to call its school",
+					"polishes river stones with its fins", "naps while floating on calm waves"), //
+			PokemonElement.GRASS,
+			List.of("basks in sunlight to grow its leaves", "plants seeds wherever it wanders",
+					"hides among tall ferns when startled", "shares sweet nectar with its friends"), //
+			PokemonElement.ELECTRIC,
+			List.of("recharges by napping under thunderclouds", "makes its fur crackle when excited",
+					"lights up dark burrows with its sparks", "gathers near power lines on stormy nights"), //
+			PokemonElement.PSYCHIC,
+			List.of("senses the moods of everyone nearby", "floats silently while it meditates",
+					"dreams of places it has never visited", "moves small stones without touching them"), //
+			PokemonElement.FIGHTING,
+			List.of("trains at dawn by punching old tree trunks", "never backs down from a friendly challenge",
+					"bows to its rivals before every match", "hardens its fists by striking rocks"));
+
+}
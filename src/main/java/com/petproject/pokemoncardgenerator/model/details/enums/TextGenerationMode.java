@@ -0,0 +1,17 @@
+package com.petproject.pokemoncardgenerator.model.details.enums;
+
+/**
+ * how names and descriptions of a card are generated
+ */
+public enum TextGenerationMode {
+	// text model, local generator only as a fallback of failed calls
+	AI,
+	// local generator only, no text model calls
+	LOCAL,
+	// text model, unless it does not answer within the hedge delay, then the local generator answers instead
+	HEDGED;
+
+	public static TextGenerationMode get(String name) {
+		return TextGenerationMode.valueOf(name.trim().toUpperCase());
+	}
+}
@@ -3,6 +3,10 @@ package com.petproject.pokemoncardgenerator.services.ai;
 import static com.petproject.pokemoncardgenerator.Constants.SUBJECT_TYPE;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +16,8 @@ import org.springframework.util.StringUtils;
 import com.petproject.pokemoncardgenerator.Models;
 import com.petproject.pokemoncardgenerator.model.Pokemon;
 import com.petproject.pokemoncardgenerator.model.details.Ability;
+import com.petproject.pokemoncardgenerator.services.ai.cache.ArtworkDiskCache;
+import com.petproject.pokemoncardgenerator.services.generator.local.LocalTextGenerator;
 import com.petproject.pokemoncardgenerator.services.rest.RestCommunicatorWrapper;
 
 @Service
@@ -19,12 +25,17 @@ public class ServiceForGeneratingGenerativeAIResults {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ServiceForGeneratingGenerativeAIResults.class);
 	private static final String ERROR_DURING_API_REQUEST = "Error occurred during API request for generating pokemon card";
-	private static final String DEFAULT_NAME = "Unnamed";
 
 	private final RestCommunicatorWrapper restCommunicator;
+	private final ArtworkDiskCache artworkCache;
+	// answers instead of the text model, when its call fails
+	private final LocalTextGenerator localTextGenerator;
 
-	public ServiceForGeneratingGenerativeAIResults(RestCommunicatorWrapper restCommunicator) {
+	public ServiceForGeneratingGenerativeAIResults(RestCommunicatorWrapper restCommunicator,
+			ArtworkDiskCache artworkCache, LocalTextGenerator localTextGenerator) {
 		this.restCommunicator = restCommunicator;
+		this.artworkCache = artworkCache;
+		this.localTextGenerator = localTextGenerator;
 	}
 
 	public String generateAbilityName(Ability ability) {
@@ -41,28 +52,44 @@ public class ServiceForGeneratingGenerativeAIResults {
 			String abilityName = restCommunicator.executeTextGenerationRestCall(Models.TEXT_GENERATION_MODEL, prompt);
 			if (abilityName != null && abilityName.length() > 30) {
 				LOGGER.info("Ability name is too long. Making request again...");
+				restCommunicator.discardTextGeneration(Models.TEXT_GENERATION_MODEL, prompt, abilityName);
 				abilityName = restCommunicator.executeTextGenerationRestCall(Models.TEXT_GENERATION_MODEL, prompt);
 			}
 
 			if (abilityName == null || abilityName.length() > 30) {
-				LOGGER.error("Failed to generate a valid ability name after retrying");
-				return DEFAULT_NAME;
+				LOGGER.error("Failed to generate a valid ability name after retrying, proceed with local name");
+				return localTextGenerator.generateAbilityName(ability);
 			}
 
 			LOGGER.info("Successfully generated ability name: {}", abilityName);
 			return abilityName;
 		} catch (Exception e) {
-			LOGGER.error("Exception occurred during ability name generation", e);
-			return DEFAULT_NAME;
+			LOGGER.error("Exception occurred during ability name generation, proceed with local name", e);
+			return localTextGenerator.generateAbilityName(ability);
 		}
 	}
 
+	/**
+	 * @return image for the prompt. Artwork of prompts, which were already generated, is taken from the disk cache
+	 * without calling the model.
+	 */
 	public BufferedImage generatePokemonImage(String imagePrompt) {
-		BufferedImage pokemonImage = restCommunicator.executeImageGenerationRestCall(Models.IMAGE_GENERATION_MODEL,
+		byte[] cachedImage = artworkCache.get(Models.IMAGE_GENERATION_MODEL, imagePrompt);
+		if (cachedImage != null) {
+			BufferedImage pokemonImage = decodeImage(cachedImage);
+			if (pokemonImage != null) {
+				LOGGER.info("Pokemon image is taken from the artwork cache");
+				return pokemonImage;
+			}
+		}
+
+		byte[] imageBytes = restCommunicator.executeRawImageGenerationRestCall(Models.IMAGE_GENERATION_MODEL,
 				imagePrompt);
+		BufferedImage pokemonImage = imageBytes != null ? decodeImage(imageBytes) : null;
 
 		if (pokemonImage != null) {
 			ServiceForGeneratingGenerativeAIResults.LOGGER.info("Successfully generated pokemon image");
+			artworkCache.put(Models.IMAGE_GENERATION_MODEL, imagePrompt, imageBytes);
 		} else {
 			ServiceForGeneratingGenerativeAIResults.LOGGER.error(
 					"Error occurred during API request for generating card image");
@@ -71,6 +98,15 @@ public class ServiceForGeneratingGenerativeAIResults {
 		return pokemonImage;
 	}
 
+	private BufferedImage decodeImage(byte[] imageBytes) {
+		try {
+			return ImageIO.read(new ByteArrayInputStream(imageBytes));
+		} catch (IOException e) {
+			LOGGER.error("IOException while transforming image response", e);
+			return null;
+		}
+	}
+
 	/**
 	 * @param pokemon
 	 * @param visualDescription
@@ -104,8 +140,9 @@ public class ServiceForGeneratingGenerativeAIResults {
 		if (desc != null) {
 			LOGGER.info("Successfully generated description: {}", desc);
 		} else {
-			LOGGER.error("Error occurred during API request for generating pokemon description. Prompt: {}", sb);
-			desc = "";
+			LOGGER.error("Error occurred during API request for generating pokemon description, proceed with local "
+					+ "description. Prompt: {}", sb);
+			return localTextGenerator.generatePokemonDescription(pokemon);
 		}
 
 		// making clear that description looks complete, as there might be not enough given tokens to generate the full sentence
@@ -121,13 +158,18 @@ public class ServiceForGeneratingGenerativeAIResults {
 				String.format(" (without using the word %s or %s) in one word without punctuation signs:", SUBJECT_TYPE,
 						pokemon.getElement().getElementName()));
 
-		return getProperName(prompt);
+		String name = getProperName(prompt);
+		if (name == null || name.isBlank()) {
+			name = localTextGenerator.generatePokemonName(pokemon);
+			LOGGER.info("Proceed with local name: {}", name);
+		}
+		return name;
 	}
 
 	/***
 	 *
 	 * @param prompt
-	 * @return complete name of the pokemon
+	 * @return complete name of the pokemon, or null if it could not be generated
 	 * Currently following conditions are coupled to the model it was used with, mistralai/Mistral-7B-Instruct-v0.1
 	 * For other models the prompts could look differently and the results as well, thus, it is better to play along firstly with the model.
 	 */
@@ -141,17 +183,18 @@ public class ServiceForGeneratingGenerativeAIResults {
 		} else {
 			ServiceForGeneratingGenerativeAIResults.LOGGER.error(
 					ERROR_DURING_API_REQUEST);
-			return DEFAULT_NAME;
+			return null;
 		}
 
 		if (name.length() > 18) {
 			ServiceForGeneratingGenerativeAIResults.LOGGER.info("Name is too long. Making request again...");
+			restCommunicator.discardTextGeneration(Models.TEXT_GENERATION_MODEL, prompt, name);
 
 			name = restCommunicator.executeTextGenerationRestCall(Models.TEXT_GENERATION_MODEL, prompt);
 			if (name == null) {
 				ServiceForGeneratingGenerativeAIResults.LOGGER.error(
 						ERROR_DURING_API_REQUEST);
-				return DEFAULT_NAME;
+				return null;
 			}
 		}
 
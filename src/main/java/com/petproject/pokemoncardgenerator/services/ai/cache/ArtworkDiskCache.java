@@ -0,0 +1,239 @@
+package com.petproject.pokemoncardgenerator.services.ai.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+
+/**
+ * persistent cache of generated artwork. Raw PNG bytes are stored as files named by SHA-256 of model id and prompt,
+ * an in-memory index keeps them in LRU order and evicts the least recently used files once the total size exceeds
+ * the limit. Files are written to a temporary file first and then atomically moved in place,
+ * so readers never see a partially written image.
+ */
+@Component
+public class ArtworkDiskCache implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArtworkDiskCache.class);
+	private static final String EXTENSION = ".png";
+	private static final String TEMP_EXTENSION = ".tmp";
+
+	private final boolean enabled;
+	private final Path directory;
+	private final long maxBytes;
+
+	// key -> file size, in access order
+	private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public ArtworkDiskCache(@Value("${artwork.cache.enabled:true}") boolean enabled,
+			@Value("${artwork.cache.directory:cache/artwork}") String directory,
+			@Value("${artwork.cache.max-megabytes:512}") long maxMegabytes) {
+		this.directory = Path.of(directory);
+		this.maxBytes = maxMegabytes * 1024 * 1024;
+		this.enabled = enabled && initDirectory();
+	}
+
+	public byte[] get(String model, String prompt) {
+		if (!enabled) {
+			return null;
+		}
+
+		String key = key(model, prompt);
+		synchronized (index) {
+			if (index.get(key) == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+		}
+
+		Path file = directory.resolve(key + EXTENSION);
+		try {
+			byte[] bytes = Files.readAllBytes(file);
+			// keeps LRU order after restart, as the index is rebuilt from modification times
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			hits.incrementAndGet();
+			return bytes;
+		} catch (NoSuchFileException e) {
+			// evicted by another thread or removed from the disk
+			remove(key);
+		} catch (IOException e) {
+			LOGGER.error("Failed to read cached artwork {}", file, e);
+			remove(key);
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	public void put(String model, String prompt, byte[] bytes) {
+		if (!enabled || bytes == null || bytes.length == 0 || bytes.length > maxBytes) {
+			return;
+		}
+
+		String key = key(model, prompt);
+		Path file = directory.resolve(key + EXTENSION);
+		try {
+			Path temp = Files.createTempFile(directory, key, TEMP_EXTENSION);
+			try {
+				Files.write(temp, bytes);
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException e) {
+			LOGGER.error("Failed to store artwork in cache {}", file, e);
+			return;
+		}
+
+		List<String> evicted;
+		synchronized (index) {
+			Long previous = index.put(key, (long) bytes.length);
+			totalBytes += bytes.length - (previous != null ? previous : 0);
+			evicted = evictOverLimit();
+		}
+		deleteFiles(evicted);
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String getStatsName() {
+		return "artworkCache";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("hits", hits.get());
+		stats.put("misses", misses.get());
+		synchronized (index) {
+			stats.put("images", index.size());
+			stats.put("bytes", totalBytes);
+		}
+		return stats;
+	}
+
+	public static String key(String model, String prompt) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest((model + "\n" + prompt).getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private void remove(String key) {
+		synchronized (index) {
+			Long size = index.remove(key);
+			if (size != null) {
+				totalBytes -= size;
+			}
+		}
+	}
+
+	/**
+	 * must be called holding the index lock, files are deleted afterwards outside of it
+	 */
+	private List<String> evictOverLimit() {
+		List<String> evicted = new ArrayList<>();
+		Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+		while (totalBytes > maxBytes && iterator.hasNext()) {
+			Map.Entry<String, Long> eldest = iterator.next();
+			totalBytes -= eldest.getValue();
+			evicted.add(eldest.getKey());
+			iterator.remove();
+		}
+		return evicted;
+	}
+
+	private void deleteFiles(List<String> keys) {
+		for (String key : keys) {
+			try {
+				Files.deleteIfExists(directory.resolve(key + EXTENSION));
+			} catch (IOException e) {
+				LOGGER.warn("Failed to delete evicted artwork {}", key, e);
+			}
+		}
+	}
+
+	/**
+	 * creates cache directory and rebuilds the index from the files, which are already there
+	 */
+	private boolean initDirectory() {
+		try {
+			Files.createDirectories(directory);
+
+			List<Path> files = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (Path file : stream) {
+					String name = file.getFileName().toString();
+					if (name.endsWith(TEMP_EXTENSION)) {
+						// leftovers of writes interrupted by a shutdown
+						Files.deleteIfExists(file);
+					} else if (name.endsWith(EXTENSION)) {
+						files.add(file);
+					}
+				}
+			}
+			files.sort(Comparator.comparing(ArtworkDiskCache::lastModified));
+
+			List<String> evicted;
+			synchronized (index) {
+				for (Path file : files) {
+					String name = file.getFileName().toString();
+					long size = Files.size(file);
+					index.put(name.substring(0, name.length() - EXTENSION.length()), size);
+					totalBytes += size;
+				}
+				evicted = evictOverLimit();
+			}
+			deleteFiles(evicted);
+
+			LOGGER.info("Artwork cache is ready at {} with {} images", directory.toAbsolutePath(), index.size());
+			return true;
+		} catch (IOException e) {
+			LOGGER.error("Artwork cache directory {} is not usable, proceeding without cache", directory, e);
+			return false;
+		}
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+}
@@ -0,0 +1,262 @@
+package com.petproject.pokemoncardgenerator.services.deck;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.fastjson.JSON;
+import com.petproject.pokemoncardgenerator.model.EncodedCard;
+import com.petproject.pokemoncardgenerator.model.PokemonParameters;
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+import com.petproject.pokemoncardgenerator.model.details.enums.TextGenerationMode;
+import com.petproject.pokemoncardgenerator.services.encoder.OutputChannel;
+import com.petproject.pokemoncardgenerator.services.generator.CardProcessor;
+import com.petproject.pokemoncardgenerator.services.threads.ThreadFactoryProvider;
+
+/**
+ * offline generation of whole decks, started with the "deck" command instead of the bot, e.g.
+ * <pre>
+ * java -jar generator.jar deck --deck.spec=event.json --deck.output=out/event --deck.parallelism=8
+ * </pre>
+ * The spec ({@link DeckSpec}) is expanded into a fixed plan of series, which run through the usual
+ * {@link CardProcessor} pipeline, deck.parallelism series at a time. Cards are encoded for the deck channel and
+ * written as soon as their series is done. Finished series are logged, a rerun with the same spec and output skips
+ * them. Throughput and series latency are logged at the end.
+ */
+@Component
+@ConditionalOnProperty(name = "deck.enabled", havingValue = "true")
+public class DeckGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DeckGenerator.class);
+
+	public static final String COMMAND = "deck";
+
+	private static final String RANDOM_ELEMENT = "RANDOM";
+
+	private final CardProcessor cardProcessor;
+	private final ThreadFactoryProvider threadFactoryProvider;
+
+	@Value("${deck.spec:deck.json}")
+	private String specPath;
+
+	// directory, or a file ending with .zip
+	@Value("${deck.output:deck-output}")
+	private String outputPath;
+
+	// series generated at the same time, cards within a series are parallel on the pipeline executor anyway
+	@Value("${deck.parallelism:4}")
+	private int parallelism;
+
+	public DeckGenerator(CardProcessor cardProcessor, ThreadFactoryProvider threadFactoryProvider) {
+		this.cardProcessor = cardProcessor;
+		this.threadFactoryProvider = threadFactoryProvider;
+	}
+
+	/**
+	 * @return process exit code: 0 if every series succeeded, 1 if some failed, 2 if the deck could not be started
+	 */
+	public int run() {
+		List<Job> jobs;
+		DeckOutput output;
+		DeckProgress progress;
+		try {
+			jobs = plan(JSON.parseObject(Files.readString(Path.of(specPath)), DeckSpec.class));
+			output = DeckOutput.open(Path.of(outputPath));
+			progress = new DeckProgress(output.getProgressFile());
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Unable to start deck generation from spec {} into {}", specPath, outputPath, e);
+			return 2;
+		}
+
+		LOGGER.info("Deck plan: {} series from {}, {} already done, writing to {} with parallelism {}", jobs.size(),
+				specPath, progress.getCompletedCount(), outputPath, parallelism);
+		Summary summary = new Summary();
+		// series written into an archive are readable only after it is closed, so they are logged only then
+		List<String> pendingJobIds = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+				threadFactoryProvider.newThreadFactory("deck-"));
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Job job : jobs) {
+				if (progress.isCompleted(job.id)) {
+					summary.skipped.incrementAndGet();
+					continue;
+				}
+				futures.add(executor.submit(() -> runJob(job, output, progress, pendingJobIds, summary)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Deck generation is interrupted");
+		} catch (ExecutionException e) {
+			LOGGER.error("Deck generation failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+			close(output, progress, pendingJobIds);
+		}
+
+		summary.log(System.nanoTime() - start);
+		return summary.failed.get() == 0 && summary.skipped.get() + summary.succeeded.get() == jobs.size() ? 0 : 1;
+	}
+
+	private void runJob(Job job, DeckOutput output, DeckProgress progress, List<String> pendingJobIds,
+			Summary summary) {
+		long start = System.nanoTime();
+		try {
+			PokemonParameters parameters = PokemonParameters.builder()
+					.element(job.element)
+					.pokemonConcept(job.subject)
+					.textMode(job.textMode)
+					.build();
+			List<EncodedCard> cards = cardProcessor.generateCards(parameters, OutputChannel.DECK);
+			if (cards.isEmpty()) {
+				LOGGER.error("Series {} ({}) produced no cards", job.id, parameters);
+				summary.failed.incrementAndGet();
+				return;
+			}
+
+			String prefix = job.id + "-" + job.element.name().toLowerCase(Locale.ROOT);
+			for (int i = 0; i < cards.size(); i++) {
+				EncodedCard card = cards.get(i);
+				output.write(prefix + "-" + i + "." + card.getFormat(), card);
+			}
+			if (output.isDurable()) {
+				progress.markCompleted(job.id);
+			} else {
+				pendingJobIds.add(job.id);
+			}
+			summary.record(cards.size(), System.nanoTime() - start);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Series {} failed", job.id, e);
+			summary.failed.incrementAndGet();
+		}
+	}
+
+	private void close(DeckOutput output, DeckProgress progress, List<String> pendingJobIds) {
+		try {
+			output.close();
+			for (String jobId : pendingJobIds) {
+				progress.markCompleted(jobId);
+			}
+		} catch (IOException e) {
+			LOGGER.error("Unable to finish deck output {}", outputPath, e);
+		}
+		try {
+			progress.close();
+		} catch (IOException e) {
+			LOGGER.error("Unable to close deck progress log", e);
+		}
+	}
+
+	/**
+	 * expands the spec into series. Element and subject of every series are drawn from the entry's own seeded
+	 * random, so the plan, and with it the ids used by the progress log, do not change between runs.
+	 * The seed does not make the generated texts and images reproducible, those come from the models.
+	 */
+	private static List<Job> plan(DeckSpec spec) {
+		List<Job> jobs = new ArrayList<>();
+		List<DeckSpec.Entry> entries = spec.getEntries();
+		for (int e = 0; e < entries.size(); e++) {
+			DeckSpec.Entry entry = entries.get(e);
+			List<String> elements = entry.getElements().isEmpty() ? List.of(RANDOM_ELEMENT) : entry.getElements();
+			List<String> subjects = entry.getSubjects();
+			TextGenerationMode textMode = entry.getTextMode() == null ? null : TextGenerationMode.get(entry.getTextMode());
+			Random random = new Random(entry.getSeed());
+			for (int n = 0; n < entry.getCount(); n++) {
+				PokemonElement element = parseElement(elements.get(random.nextInt(elements.size())), random);
+				String subject = subjects.isEmpty() ? null : subjects.get(random.nextInt(subjects.size()));
+				jobs.add(new Job(String.format("%03d-%05d", e, n), element, subject, textMode));
+			}
+		}
+		return jobs;
+	}
+
+	private static PokemonElement parseElement(String name, Random random) {
+		if (RANDOM_ELEMENT.equalsIgnoreCase(name)) {
+			// the last element is UNKNOWN, it has no card template
+			return PokemonElement.values()[random.nextInt(PokemonElement.values().length - 1)];
+		}
+		PokemonElement element = PokemonElement.get(name);
+		if (element == PokemonElement.UNKNOWN) {
+			element = PokemonElement.valueOf(name.toUpperCase(Locale.ROOT));
+		}
+		if (element == PokemonElement.UNKNOWN) {
+			throw new IllegalArgumentException("Unknown element in deck spec: " + name);
+		}
+		return element;
+	}
+
+	private static final class Job {
+
+		private final String id;
+		private final PokemonElement element;
+		private final String subject;
+		private final TextGenerationMode textMode;
+
+		private Job(String id, PokemonElement element, String subject, TextGenerationMode textMode) {
+			this.id = id;
+			this.element = element;
+			this.subject = subject;
+			this.textMode = textMode;
+		}
+	}
+
+	private static final class Summary {
+
+		private final AtomicInteger succeeded = new AtomicInteger();
+		private final AtomicInteger failed = new AtomicInteger();
+		private final AtomicInteger skipped = new AtomicInteger();
+		private final AtomicInteger cards = new AtomicInteger();
+		private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+		private void record(int cardCount, long elapsedNanos) {
+			succeeded.incrementAndGet();
+			cards.addAndGet(cardCount);
+			latencies.add(elapsedNanos);
+		}
+
+		private void log(long elapsedNanos) {
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			double seconds = elapsedNanos / 1e9;
+			LOGGER.info("Deck finished in {} s: {} series succeeded, {} failed, {} skipped as done before; "
+							+ "{} cards, {} cards/s, {} series/s; series latency p50 {} s, p95 {} s, max {} s",
+					format(seconds), succeeded.get(), failed.get(), skipped.get(), cards.get(),
+					format(seconds > 0 ? cards.get() / seconds : 0), format(seconds > 0 ? succeeded.get() / seconds : 0),
+					format(percentile(sorted, 0.5)), format(percentile(sorted, 0.95)),
+					format(percentile(sorted, 1.0)));
+		}
+
+		private static double percentile(List<Long> sorted, double fraction) {
+			if (sorted.isEmpty()) {
+				return 0;
+			}
+			int index = (int) Math.ceil(fraction * sorted.size()) - 1;
+			return sorted.get(Math.max(0, index)) / 1e9;
+		}
+
+		private static String format(double value) {
+			return String.format(Locale.ROOT, "%.2f", value);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.petproject.pokemoncardgenerator.services.deck;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.petproject.pokemoncardgenerator.model.EncodedCard;
+
+/**
+ * destination of generated deck cards, written as they are produced. Implementations are thread-safe.
+ */
+interface DeckOutput extends AutoCloseable {
+
+	void write(String fileName, EncodedCard card) throws IOException;
+
+	/**
+	 * @return file of the progress log belonging to this output
+	 */
+	Path getProgressFile();
+
+	/**
+	 * @return whether written cards survive a crash right away, otherwise only after {@link #close()}
+	 */
+	boolean isDurable();
+
+	@Override
+	void close() throws IOException;
+
+	/**
+	 * @param target directory, or a file ending with .zip for an archive
+	 */
+	static DeckOutput open(Path target) throws IOException {
+		String name = target.getFileName().toString();
+		if (name.toLowerCase().endsWith(".zip")) {
+			return new ArchiveOutput(target);
+		}
+		return new DirectoryOutput(target);
+	}
+
+	/**
+	 * every card goes to a temporary file first and is moved in place, so an interrupted run leaves no torn cards
+	 */
+	final class DirectoryOutput implements DeckOutput {
+
+		private final Path directory;
+
+		private DirectoryOutput(Path directory) throws IOException {
+			this.directory = Files.createDirectories(directory);
+		}
+
+		@Override
+		public void write(String fileName, EncodedCard card) throws IOException {
+			Path target = directory.resolve(fileName);
+			Path temp = directory.resolve(fileName + ".tmp");
+			try (OutputStream os = Files.newOutputStream(temp)) {
+				card.writeTo(os);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		@Override
+		public Path getProgressFile() {
+			return directory.resolve("progress.log");
+		}
+
+		@Override
+		public boolean isDurable() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * streams cards into a zip archive without compression, the encoded images are compressed already.
+	 * A zip cannot be appended to, so a resumed run writes the remaining cards into the next free part
+	 * (deck.zip, deck-2.zip, ...), while the progress log is shared by all parts.
+	 */
+	final class ArchiveOutput implements DeckOutput {
+
+		private final Path progressFile;
+		private final ZipOutputStream zip;
+
+		private ArchiveOutput(Path archive) throws IOException {
+			Path parent = archive.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			String baseName = archive.getFileName().toString();
+			baseName = baseName.substring(0, baseName.length() - ".zip".length());
+			this.progressFile = parent.resolve(baseName + ".progress.log");
+
+			Path part = archive;
+			for (int i = 2; Files.exists(part); i++) {
+				part = parent.resolve(baseName + "-" + i + ".zip");
+			}
+			this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(part)));
+			this.zip.setLevel(0);
+		}
+
+		@Override
+		public synchronized void write(String fileName, EncodedCard card) throws IOException {
+			zip.putNextEntry(new ZipEntry(fileName));
+			card.writeTo(zip);
+			zip.closeEntry();
+		}
+
+		@Override
+		public Path getProgressFile() {
+			return progressFile;
+		}
+
+		@Override
+		public boolean isDurable() {
+			// entries are readable only once the central directory is written on close
+			return false;
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			zip.close();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.petproject.pokemoncardgenerator.services.deck;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * append-only log of finished deck jobs, one job id per line. A job is logged only after all its cards are written,
+ * so an interrupted run is resumed by skipping the logged jobs; a torn last line is just not recognized.
+ */
+class DeckProgress implements AutoCloseable {
+
+	private final Set<String> completed = new HashSet<>();
+	private final BufferedWriter writer;
+
+	DeckProgress(Path file) throws IOException {
+		if (Files.exists(file)) {
+			completed.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+		}
+		writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	synchronized boolean isCompleted(String jobId) {
+		return completed.contains(jobId);
+	}
+
+	synchronized void markCompleted(String jobId) throws IOException {
+		if (completed.add(jobId)) {
+			writer.write(jobId);
+			writer.newLine();
+			writer.flush();
+		}
+	}
+
+	synchronized int getCompletedCount() {
+		return completed.size();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,75 @@
+package com.petproject.pokemoncardgenerator.services.deck;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON spec of a deck for the offline generation, e.g.
+ * <pre>
+ * { "entries": [ { "elements": ["FIRE", "RANDOM"], "subjects": ["wolf", "owl"], "count": 100, "seed": 42 } ] }
+ * </pre>
+ * Every entry produces {@code count} series, the element and the subject of each series are picked from the lists
+ * with a random seeded by {@code seed}, so the same spec always expands to the same plan.
+ * An entry may set {@code "textMode": "local"} (or "ai", "hedged") to override text.mode for its cards.
+ */
+public class DeckSpec {
+
+	private List<Entry> entries = new ArrayList<>();
+
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	public void setEntries(List<Entry> entries) {
+		this.entries = entries;
+	}
+
+	public static class Entry {
+
+		private List<String> elements = new ArrayList<>();
+		private List<String> subjects = new ArrayList<>();
+		private int count = 1;
+		private long seed;
+		private String textMode;
+
+		public List<String> getElements() {
+			return elements;
+		}
+
+		public void setElements(List<String> elements) {
+			this.elements = elements;
+		}
+
+		public List<String> getSubjects() {
+			return subjects;
+		}
+
+		public void setSubjects(List<String> subjects) {
+			this.subjects = subjects;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public long getSeed() {
+			return seed;
+		}
+
+		public void setSeed(long seed) {
+			this.seed = seed;
+		}
+
+		public String getTextMode() {
+			return textMode;
+		}
+
+		public void setTextMode(String textMode) {
+			this.textMode = textMode;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.petproject.pokemoncardgenerator.services.encoder;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.model.EncodedCard;
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+
+/**
+ * encodes rendered cards once, right after rendering, on the thread of the card pipeline.
+ * Format, PNG deflate level, JPEG quality and palette reduction are configured per {@link OutputChannel}.
+ * The buffer is sized by the average card size of the channel, and the encoded bytes are handed over to
+ * {@link EncodedCard} without the copy of toByteArray(), unless the buffer is over twice the size of the content.
+ * Encode time and size are tracked per channel, so settings can be compared on real cards via /stats.
+ */
+@Component
+public class CardEncoder implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CardEncoder.class);
+
+	// first cards of a channel, before its average size is known: a true color PNG is about 600 KB, a JPEG about 80 KB
+	private static final int PNG_BUFFER_SIZE = 768 * 1024;
+	private static final int JPEG_BUFFER_SIZE = 128 * 1024;
+	private static final int MIN_BUFFER_SIZE = 16 * 1024;
+
+	private final Map<OutputChannel, EncodingProfile> profiles = new EnumMap<>(OutputChannel.class);
+	private final Map<OutputChannel, ChannelStats> stats = new EnumMap<>(OutputChannel.class);
+
+	public CardEncoder(Environment environment) {
+		for (OutputChannel channel : OutputChannel.values()) {
+			OutputFormat defaultFormat = channel == OutputChannel.TELEGRAM_PHOTO ? OutputFormat.JPEG : OutputFormat.PNG;
+			EncodingProfile profile = EncodingProfile.of(environment, channel, defaultFormat);
+			profiles.put(channel, profile);
+			stats.put(channel, new ChannelStats());
+			LOGGER.info("Cards for {} are encoded with {}", channel, profile);
+		}
+	}
+
+	/**
+	 * encodes the card for sending as a Telegram photo
+	 */
+	public EncodedCard encode(BufferedImage card) {
+		return encode(card, OutputChannel.TELEGRAM_PHOTO);
+	}
+
+	public EncodedCard encode(BufferedImage card, OutputChannel channel) {
+		long start = System.nanoTime();
+		EncodingProfile profile = profiles.get(channel);
+		OutputFormat format = profile.getFormat();
+
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format.getFormatName());
+		if (!writers.hasNext()) {
+			throw new IllegalStateException("No image writer for " + format);
+		}
+		ImageWriter writer = writers.next();
+		ChannelStats channelStats = stats.get(channel);
+		ExposedByteArrayOutputStream os = new ExposedByteArrayOutputStream(channelStats.bufferSize(format));
+		// memory cache explicitly, ImageIO.write would go through a temporary file by default
+		try (ImageOutputStream ios = new MemoryCacheImageOutputStream(os)) {
+			writer.setOutput(ios);
+			writer.write(null, new IIOImage(prepareImage(card, profile), null, null), writeParam(writer, profile));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to encode card", e);
+		} finally {
+			writer.dispose();
+		}
+
+		channelStats.record(System.nanoTime() - start, os.size());
+		// the card is kept until it is sent, so a mostly empty buffer is not kept along with it
+		byte[] data = os.getBuffer().length > 2 * os.size() ? Arrays.copyOf(os.getBuffer(), os.size()) : os.getBuffer();
+		return EncodedCard.builder()
+				.data(data, os.size())
+				.format(format.getFormatName())
+				.mimeType(format.getMimeType())
+				.width(card.getWidth())
+				.height(card.getHeight())
+				.sha256(sha256(data, os.size()))
+				.build();
+	}
+
+	private static BufferedImage prepareImage(BufferedImage card, EncodingProfile profile) {
+		if (profile.getFormat() == OutputFormat.JPEG) {
+			// JPEG has no alpha channel, the JDK writer rejects ARGB images
+			BufferedImage opaque = new BufferedImage(card.getWidth(), card.getHeight(), BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = opaque.createGraphics();
+			g.setColor(profile.getBackground());
+			g.fillRect(0, 0, card.getWidth(), card.getHeight());
+			g.drawImage(card, 0, 0, null);
+			g.dispose();
+			return opaque;
+		}
+		if (profile.getPaletteColors() > 0) {
+			return PaletteQuantizer.quantize(card, profile.getPaletteColors());
+		}
+		return card;
+	}
+
+	private static ImageWriteParam writeParam(ImageWriter writer, EncodingProfile profile) {
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		float quality;
+		if (profile.getFormat() == OutputFormat.JPEG) {
+			quality = profile.getJpegQuality();
+		} else if (profile.getPngCompressionLevel() >= 0) {
+			// the JDK PNG writer derives the deflate level as (int) (9 * (1 - quality))
+			quality = Math.max(0f, 1f - (profile.getPngCompressionLevel() + 0.5f) / 9f);
+		} else {
+			return param;
+		}
+
+		if (param.canWriteCompressed()) {
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+				param.setCompressionType(param.getCompressionTypes()[0]);
+			}
+			param.setCompressionQuality(quality);
+		}
+		return param;
+	}
+
+	private static String sha256(byte[] data, int length) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(data, 0, length);
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String getStatsName() {
+		return "cardEncoder";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		stats.forEach((channel, channelStats) -> {
+			Map<String, Object> channelResult = new LinkedHashMap<>();
+			channelResult.put("profile", profiles.get(channel).toString());
+			channelResult.putAll(channelStats.toMap());
+			result.put(channel.getPropertyKey(), channelResult);
+		});
+		return result;
+	}
+
+	/**
+	 * gives access to the internal buffer, so that the encoded bytes are not copied
+	 */
+	private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+		private ExposedByteArrayOutputStream(int size) {
+			super(size);
+		}
+
+		private byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+	private static final class ChannelStats {
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong nanos = new AtomicLong();
+		private final AtomicLong bytes = new AtomicLong();
+
+		/**
+		 * a quarter over the average size, so that most cards fit without the buffer growing
+		 */
+		private int bufferSize(OutputFormat format) {
+			long n = count.get();
+			if (n == 0) {
+				return format == OutputFormat.JPEG ? JPEG_BUFFER_SIZE : PNG_BUFFER_SIZE;
+			}
+			return (int) Math.max(MIN_BUFFER_SIZE, Math.min(Integer.MAX_VALUE - 8, bytes.get() / n * 5 / 4));
+		}
+
+		private void record(long elapsedNanos, long size) {
+			count.incrementAndGet();
+			nanos.addAndGet(elapsedNanos);
+			bytes.addAndGet(size);
+		}
+
+		private Map<String, Object> toMap() {
+			long n = count.get();
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("encoded", n);
+			map.put("avgMillis", n == 0 ? 0 : nanos.get() / n / 1_000_000.0);
+			map.put("avgKilobytes", n == 0 ? 0 : bytes.get() / n / 1024);
+			return map;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.petproject.pokemoncardgenerator.services.encoder;
+
+import java.awt.Color;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * encoding settings of one output channel
+ */
+final class EncodingProfile {
+
+	private static final String PREFIX = "output.";
+
+	private final OutputFormat format;
+	// 0 (no compression) - 9 (smallest), -1 for the writer default
+	private final int pngCompressionLevel;
+	private final float jpegQuality;
+	// 0 keeps true color, otherwise the card is reduced to a palette of that many colors (PNG only)
+	private final int paletteColors;
+	private final Color background;
+
+	private EncodingProfile(OutputFormat format, int pngCompressionLevel, float jpegQuality, int paletteColors,
+			Color background) {
+		this.format = format;
+		this.pngCompressionLevel = Math.min(pngCompressionLevel, 9);
+		this.jpegQuality = Math.max(0f, Math.min(jpegQuality, 1f));
+		this.paletteColors = paletteColors <= 0 ? 0 : Math.max(2, Math.min(paletteColors, 256));
+		this.background = background;
+	}
+
+	static EncodingProfile of(Environment environment, OutputChannel channel, OutputFormat defaultFormat) {
+		String prefix = PREFIX + channel.getPropertyKey() + ".";
+		OutputFormat format = OutputFormat.valueOf(
+				environment.getProperty(prefix + "format", defaultFormat.name()).trim().toUpperCase());
+		return new EncodingProfile(format,
+				environment.getProperty(prefix + "png-compression-level", Integer.class, -1),
+				environment.getProperty(prefix + "jpeg-quality", Float.class, 0.9f),
+				environment.getProperty(prefix + "palette-colors", Integer.class, 0),
+				Color.decode(environment.getProperty(prefix + "background", "#FFFFFF")));
+	}
+
+	OutputFormat getFormat() {
+		return format;
+	}
+
+	int getPngCompressionLevel() {
+		return pngCompressionLevel;
+	}
+
+	float getJpegQuality() {
+		return jpegQuality;
+	}
+
+	int getPaletteColors() {
+		return paletteColors;
+	}
+
+	Color getBackground() {
+		return background;
+	}
+
+	@Override
+	public String toString() {
+		return "EncodingProfile{" + "format=" + format + ", pngCompressionLevel=" + pngCompressionLevel
+				+ ", jpegQuality=" + jpegQuality + ", paletteColors=" + paletteColors + '}';
+	}
+}
@@ -0,0 +1,22 @@
+package com.petproject.pokemoncardgenerator.services.encoder;
+
+/**
+ * destinations of encoded cards, each of them has its own encoding settings under output.&lt;key&gt;.*
+ */
+public enum OutputChannel {
+
+	// recompressed by Telegram anyway, so a compact lossy encoding is enough
+	TELEGRAM_PHOTO("telegram-photo"),
+	// files of the offline deck generation, kept as they are
+	DECK("deck");
+
+	private final String propertyKey;
+
+	OutputChannel(String propertyKey) {
+		this.propertyKey = propertyKey;
+	}
+
+	public String getPropertyKey() {
+		return propertyKey;
+	}
+}
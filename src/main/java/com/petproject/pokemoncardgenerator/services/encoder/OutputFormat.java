@@ -0,0 +1,27 @@
+package com.petproject.pokemoncardgenerator.services.encoder;
+
+/**
+ * image formats the cards can be encoded to, limited to the writers available in the JDK
+ */
+public enum OutputFormat {
+
+	PNG("png", "image/png"),
+	// opaque, transparent card corners are filled with the background color
+	JPEG("jpeg", "image/jpeg");
+
+	private final String formatName;
+	private final String mimeType;
+
+	OutputFormat(String formatName, String mimeType) {
+		this.formatName = formatName;
+		this.mimeType = mimeType;
+	}
+
+	public String getFormatName() {
+		return formatName;
+	}
+
+	public String getMimeType() {
+		return mimeType;
+	}
+}
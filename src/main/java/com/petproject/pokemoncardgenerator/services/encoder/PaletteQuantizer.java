@@ -0,0 +1,194 @@
+package com.petproject.pokemoncardgenerator.services.encoder;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * reduces a card to an indexed palette with median cut over a 5-bit per channel histogram.
+ * Pixels below half opacity become the single transparent entry, partial transparency is not kept.
+ * No dithering: it would defeat the deflate compression, which is the point of the palette.
+ */
+final class PaletteQuantizer {
+
+	private static final int BITS = 5;
+	private static final int LEVELS = 1 << BITS;
+	private static final int BUCKETS = LEVELS * LEVELS * LEVELS;
+
+	private PaletteQuantizer() {
+	}
+
+	static BufferedImage quantize(BufferedImage source, int colors) {
+		int width = source.getWidth();
+		int height = source.getHeight();
+		int[] pixels = source.getRGB(0, 0, width, height, null, 0, width);
+
+		int[] counts = new int[BUCKETS];
+		long[] sums = new long[BUCKETS * 3];
+		boolean hasTransparency = false;
+		for (int argb : pixels) {
+			if ((argb >>> 24) < 128) {
+				hasTransparency = true;
+				continue;
+			}
+			int bucket = bucketOf(argb);
+			counts[bucket]++;
+			sums[bucket * 3] += (argb >> 16) & 0xFF;
+			sums[bucket * 3 + 1] += (argb >> 8) & 0xFF;
+			sums[bucket * 3 + 2] += argb & 0xFF;
+		}
+
+		int firstColor = hasTransparency ? 1 : 0;
+		List<Box> boxes = splitBoxes(counts, colors - firstColor);
+
+		int size = firstColor + Math.max(boxes.size(), 1);
+		byte[] r = new byte[size];
+		byte[] g = new byte[size];
+		byte[] b = new byte[size];
+
+		byte[] lookup = new byte[BUCKETS];
+		for (int i = 0; i < boxes.size(); i++) {
+			int index = firstColor + i;
+			long count = 0;
+			long rSum = 0;
+			long gSum = 0;
+			long bSum = 0;
+			for (int bucket : boxes.get(i).buckets) {
+				lookup[bucket] = (byte) index;
+				count += counts[bucket];
+				rSum += sums[bucket * 3];
+				gSum += sums[bucket * 3 + 1];
+				bSum += sums[bucket * 3 + 2];
+			}
+			r[index] = (byte) (rSum / count);
+			g[index] = (byte) (gSum / count);
+			b[index] = (byte) (bSum / count);
+		}
+
+		// index 0 is the transparent color, if there is one
+		IndexColorModel colorModel = hasTransparency ?
+				new IndexColorModel(8, size, r, g, b, 0) :
+				new IndexColorModel(8, size, r, g, b);
+		BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+		byte[] out = ((DataBufferByte) target.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < pixels.length; i++) {
+			int argb = pixels[i];
+			out[i] = (argb >>> 24) < 128 ? 0 : lookup[bucketOf(argb)];
+		}
+		return target;
+	}
+
+	private static List<Box> splitBoxes(int[] counts, int maxBoxes) {
+		int used = 0;
+		for (int count : counts) {
+			if (count > 0) {
+				used++;
+			}
+		}
+		int[] buckets = new int[used];
+		int next = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			if (counts[bucket] > 0) {
+				buckets[next++] = bucket;
+			}
+		}
+
+		List<Box> boxes = new ArrayList<>();
+		if (used == 0) {
+			return boxes;
+		}
+		boxes.add(new Box(buckets, counts));
+		while (boxes.size() < maxBoxes) {
+			// the box covering most pixels over the widest range is split first
+			Box widest = null;
+			long widestScore = 0;
+			for (Box box : boxes) {
+				long score = (long) box.range() * box.population;
+				if (box.buckets.length > 1 && score > widestScore) {
+					widest = box;
+					widestScore = score;
+				}
+			}
+			if (widest == null) {
+				break;
+			}
+			boxes.remove(widest);
+			boxes.addAll(widest.split(counts));
+		}
+		return boxes;
+	}
+
+	private static int bucketOf(int argb) {
+		int r = (argb >> (16 + 8 - BITS)) & (LEVELS - 1);
+		int g = (argb >> (8 + 8 - BITS)) & (LEVELS - 1);
+		int b = (argb >> (8 - BITS)) & (LEVELS - 1);
+		return (r << (2 * BITS)) | (g << BITS) | b;
+	}
+
+	private static int component(int bucket, int axis) {
+		return (bucket >> ((2 - axis) * BITS)) & (LEVELS - 1);
+	}
+
+	private static final class Box {
+
+		private final int[] buckets;
+		private final long population;
+		private final int[] min = { LEVELS, LEVELS, LEVELS };
+		private final int[] max = { -1, -1, -1 };
+
+		private Box(int[] buckets, int[] counts) {
+			this.buckets = buckets;
+			long sum = 0;
+			for (int bucket : buckets) {
+				sum += counts[bucket];
+				for (int axis = 0; axis < 3; axis++) {
+					int value = component(bucket, axis);
+					min[axis] = Math.min(min[axis], value);
+					max[axis] = Math.max(max[axis], value);
+				}
+			}
+			this.population = sum;
+		}
+
+		private int longestAxis() {
+			int axis = 0;
+			for (int i = 1; i < 3; i++) {
+				if (max[i] - min[i] > max[axis] - min[axis]) {
+					axis = i;
+				}
+			}
+			return axis;
+		}
+
+		private int range() {
+			int axis = longestAxis();
+			return max[axis] - min[axis] + 1;
+		}
+
+		/**
+		 * splits at the median pixel along the longest axis
+		 */
+		private List<Box> split(int[] counts) {
+			int axis = longestAxis();
+			int[] sorted = Arrays.stream(buckets).boxed()
+					.sorted((x, y) -> Integer.compare(component(x, axis), component(y, axis)))
+					.mapToInt(Integer::intValue).toArray();
+
+			long half = population / 2;
+			long accumulated = 0;
+			int cut = 1;
+			for (int i = 0; i < sorted.length - 1; i++) {
+				accumulated += counts[sorted[i]];
+				cut = i + 1;
+				if (accumulated >= half) {
+					break;
+				}
+			}
+			return List.of(new Box(Arrays.copyOfRange(sorted, 0, cut), counts),
+					new Box(Arrays.copyOfRange(sorted, cut, sorted.length), counts));
+		}
+	}
+}
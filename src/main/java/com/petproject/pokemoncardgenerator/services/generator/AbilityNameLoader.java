@@ -17,11 +17,13 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.TypeReference;
 import com.petproject.pokemoncardgenerator.model.details.Ability;
 import com.petproject.pokemoncardgenerator.services.ai.ServiceForGeneratingGenerativeAIResults;
+import com.petproject.pokemoncardgenerator.services.generator.local.LocalTextGenerator;
 
 /**
  * preload list of real pokemon abilities or generate new with AI.
  * resourceFile is a json file containing ability names by ability key
- * if name was not found or there is no such file, proceed with API request for generating ability name. if that fails as well, Unnamed Ability would be returned.
+ * if name was not found or there is no such file, proceed with API request for generating ability name. if that fails
+ * as well or AI is not allowed, the name is generated locally.
  */
 @Service
 public class AbilityNameLoader {
@@ -32,14 +34,24 @@ public class AbilityNameLoader {
 	private Resource resourceFile;
 
 	private final ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults;
+	private final LocalTextGenerator localTextGenerator;
 
-	private Map<String, List<String>> keyToAbilityNamesPool;
+	private volatile Map<String, List<String>> keyToAbilityNamesPool;
 
-	public AbilityNameLoader(ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults) {
+	public AbilityNameLoader(ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults,
+			LocalTextGenerator localTextGenerator) {
 		this.serviceForGeneratingAIResults = serviceForGeneratingAIResults;
+		this.localTextGenerator = localTextGenerator;
 	}
 
 	public String getAbilityName(Ability ability) {
+		return getAbilityName(ability, true);
+	}
+
+	/**
+	 * @param isAIAllowed whether the text model may be asked for names missing in the predefined pool
+	 */
+	public String getAbilityName(Ability ability, boolean isAIAllowed) {
 
 		if (keyToAbilityNamesPool == null) {
 			populateContentPool();
@@ -55,18 +67,19 @@ public class AbilityNameLoader {
 			return randomNames.get(ThreadLocalRandom.current().nextInt(randomNames.size() - 1));
 
 		} else {
-			if (serviceForGeneratingAIResults.isAIEnabled()) {
+			if (isAIAllowed && serviceForGeneratingAIResults.isAIEnabled()) {
 				AbilityNameLoader.LOGGER.info(
 						"Key is not present in content pool. Request to AI would be done to generate name.");
 				return serviceForGeneratingAIResults.generateAbilityName(ability);
 			}
 		}
 
-		AbilityNameLoader.LOGGER.info("Ability name loading failed. Proceed with unnamed ability");
-		return "Unnamed Ability";
+		AbilityNameLoader.LOGGER.info("Key is not present in content pool. Proceed with local name");
+		return localTextGenerator.generateAbilityName(ability);
 	}
 
-	private void populateContentPool() {
+	// names of one card are loaded concurrently, so the lazy loading has to happen only once
+	private synchronized void populateContentPool() {
 		if (keyToAbilityNamesPool == null) {
 			try {
 				String content = resourceFile.getContentAsString(StandardCharsets.UTF_8);
@@ -5,11 +5,18 @@ import static com.petproject.pokemoncardgenerator.Constants.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.petproject.pokemoncardgenerator.model.Pokemon;
@@ -18,7 +25,10 @@ import com.petproject.pokemoncardgenerator.model.Style;
 import com.petproject.pokemoncardgenerator.model.details.Ability;
 import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
 import com.petproject.pokemoncardgenerator.model.details.enums.Rarity;
+import com.petproject.pokemoncardgenerator.model.details.enums.TextGenerationMode;
 import com.petproject.pokemoncardgenerator.services.ai.ServiceForGeneratingGenerativeAIResults;
+import com.petproject.pokemoncardgenerator.services.generator.config.GeneratorExecutorConfig;
+import com.petproject.pokemoncardgenerator.services.generator.local.LocalTextGenerator;
 
 @Service
 public class CardGenerator {
@@ -28,61 +38,102 @@ public class CardGenerator {
 	private final StyleGenerator styleGenerator;
 	private final AbilityNameLoader abilityNameLoader;
 	private final ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults;
+	private final LocalTextGenerator localTextGenerator;
+	private final ExecutorService textExecutor;
+	private final TextGenerationMode defaultTextMode;
+	private final Executor hedgeDelay;
 
 	public CardGenerator(StyleGenerator styleGenerator, AbilityNameLoader abilityNameLoader,
-			ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults) {
+			ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults,
+			LocalTextGenerator localTextGenerator,
+			@Qualifier(GeneratorExecutorConfig.TEXT_GENERATION_EXECUTOR) ExecutorService textExecutor,
+			@Value("${text.mode:ai}") String textMode,
+			@Value("${text.hedge-after-ms:3000}") long hedgeAfterMillis) {
 		this.styleGenerator = styleGenerator;
 		this.abilityNameLoader = abilityNameLoader;
 		this.serviceForGeneratingAIResults = serviceForGeneratingAIResults;
+		this.localTextGenerator = localTextGenerator;
+		this.textExecutor = textExecutor;
+		this.defaultTextMode = TextGenerationMode.get(textMode);
+		// not the text executor: with all its threads waiting on the text model, the hedge would wait as well
+		this.hedgeDelay = CompletableFuture.delayedExecutor(hedgeAfterMillis, TimeUnit.MILLISECONDS);
+		LOGGER.info("Card texts are generated in {} mode", defaultTextMode);
 	}
 
 	public List<Pokemon> generatePokemons(PokemonParameters parameters) {
+		return generatePokemonsAsync(parameters, Runnable::run).stream().map(CompletableFuture::join).toList();
+	}
+
+	/**
+	 * @param executor executor to generate cards on
+	 * @return futures of the series cards in series order. The first card is started right away, the following ones
+	 * start as soon as the first one is ready, as they inherit its style, so they are generated concurrently.
+	 * If the first card fails, the whole series fails.
+	 */
+	public List<CompletableFuture<Pokemon>> generatePokemonsAsync(PokemonParameters parameters, Executor executor) {
 		int generationAmount = ThreadLocalRandom.current().nextInt(1, 3);
 
 		CardGenerator.LOGGER.info("Generating pokemon {} card(s) of {}", generationAmount,
 				parameters.getElement().getElementName());
-		return generateSeries(parameters.getElement(), generationAmount, parameters.getPokemonConcept());
+		TextGenerationMode textMode = parameters.getTextMode() != null ? parameters.getTextMode() : defaultTextMode;
+		return generateSeries(parameters.getElement(), generationAmount, parameters.getPokemonConcept(), textMode,
+				executor);
 	}
 
-	private List<Pokemon> generateSeries(PokemonElement element, int n, String pokemonConceptOverride) {
-		List<Pokemon> pokemons = new ArrayList<>();
+	private List<CompletableFuture<Pokemon>> generateSeries(PokemonElement element, int n,
+			String pokemonConceptOverride, TextGenerationMode textMode, Executor executor) {
+		List<CompletableFuture<Pokemon>> pokemons = new ArrayList<>();
 
 		int rarityRange = Math.max(Rarity.values().length - n, 0);
 		int startingRarityIndex = rarityRange > 0 ? ThreadLocalRandom.current().nextInt(0, rarityRange) : 0;
 
-		Style cardStyle = null;
+		CompletableFuture<Pokemon> firstPokemon = null;
 
 		for (int i = 0; i < n; i++) {
 			int rarityIndex = Math.min(Rarity.values().length - 1, startingRarityIndex + i);
-			Pokemon pokemon = generatePokemonCard(element, Rarity.values()[rarityIndex], cardStyle, n > 1 ? i : null,
-					pokemonConceptOverride);
-
-			if (i == 0) {
-				cardStyle = pokemon.getStyle();
+			Rarity rarity = Rarity.values()[rarityIndex];
+			Integer serieIndex = n > 1 ? i : null;
+
+			CompletableFuture<Pokemon> pokemon;
+			if (firstPokemon == null) {
+				pokemon = CompletableFuture.supplyAsync(
+						() -> generatePokemonCard(element, rarity, null, serieIndex, pokemonConceptOverride, textMode),
+						executor);
+				firstPokemon = pokemon;
+			} else {
+				pokemon = firstPokemon.thenApplyAsync(
+						first -> generatePokemonCard(element, rarity, first.getStyle(), serieIndex,
+								pokemonConceptOverride, textMode), executor);
 			}
 
-			CardGenerator.LOGGER.info("Generated pokemon: {}", pokemon);
-			pokemons.add(pokemon);
+			pokemons.add(pokemon.whenComplete((generated, exception) -> {
+				if (generated != null) {
+					CardGenerator.LOGGER.info("Generated pokemon: {}", generated);
+				}
+			}));
 		}
 
 		return pokemons;
 	}
 
 	public Pokemon generatePokemonCard(PokemonElement element, Rarity rarity, Style inheritedStyle, Integer serieIndex,
-			String subjectOverride) {
+			String subjectOverride, TextGenerationMode textMode) {
 		boolean isPartOfSeries = serieIndex != null;
 		int maxAbilityPoints = isPartOfSeries ?
 				CardGenerator.getPointsBudget(rarity.ordinal(), serieIndex) :
 				CardGenerator.getPointsBudget(rarity.ordinal(), 1);
+		TextGenerationMode mode = serviceForGeneratingAIResults.isAIEnabled() ? textMode : TextGenerationMode.LOCAL;
 
 		int hpPoints = ThreadLocalRandom.current().nextInt(0, Math.floorDiv(maxAbilityPoints, 2));
 		int abilityPoints = maxAbilityPoints - hpPoints;
 		List<Integer> abilityCosts = CardGenerator.getAbilityPointsCosts(abilityPoints, rarity.ordinal());
 		List<Ability> abilities = generateAbilities(element, abilityCosts);
 
-		for (Ability ability : abilities) {
-			ability.setName(abilityNameLoader.getAbilityName(ability));
-		}
+		// ability names do not depend on each other nor on the rest of the card, so they are requested right away
+		CompletableFuture<?>[] abilityNames = abilities.stream()
+				.map(ability -> generateText(mode, () -> abilityNameLoader.getAbilityName(ability),
+						() -> abilityNameLoader.getAbilityName(ability, false)).thenAccept(ability::setName))
+				.toArray(CompletableFuture[]::new);
 
 		int bonusHpPoints = maxAbilityPoints + hpPoints * ABILITY_TO_HP_PTS;
 		int hp = 10 * bonusHpPoints;
@@ -94,18 +145,50 @@ public class CardGenerator {
 		pokemon.setImagePrompt(getImagePrompt(pokemon));
 		pokemon.setVisualDescription(getVisualDescription(pokemon));
 
-		if (serviceForGeneratingAIResults.isAIEnabled()) {
-			pokemon.setName(serviceForGeneratingAIResults.generatePokemonName(pokemon));
-			pokemon.setDescription(
-					serviceForGeneratingAIResults.generatePokemonDescription(pokemon, getVisualDescription(pokemon)));
-		}
-
+		// name runs alongside ability names, description needs both of them
+		String visualDescription = getVisualDescription(pokemon);
+		CompletableFuture<String> name = generateText(mode,
+				() -> serviceForGeneratingAIResults.generatePokemonName(pokemon),
+				() -> localTextGenerator.generatePokemonName(pokemon));
+		CompletableFuture<String> description = CompletableFuture.allOf(abilityNames)
+				.thenCombine(name, (ignored, generatedName) -> generatedName)
+				.thenCompose(generatedName -> {
+					pokemon.setName(generatedName);
+					return generateText(mode,
+							() -> serviceForGeneratingAIResults.generatePokemonDescription(pokemon, visualDescription),
+							() -> localTextGenerator.generatePokemonDescription(pokemon));
+				});
+
+		pokemon.setDescription(description.join());
 		pokemon.setImagePrompt(getImagePrompt(pokemon));
 		pokemon.setVisualDescription(getVisualDescription(pokemon));
 
 		return pokemon;
 	}
 
+	/**
+	 * @param remote generation through the text model, runs on the text executor
+	 * @param local generation through the local generator, cheap enough to run on the calling thread
+	 * @return in hedged mode, whichever answers first: the text model, or the local generator after the hedge delay.
+	 * The text model call is not cancelled when it loses, its answer still ends up in the text cache.
+	 */
+	private CompletableFuture<String> generateText(TextGenerationMode mode, Supplier<String> remote,
+			Supplier<String> local) {
+		if (mode == TextGenerationMode.LOCAL) {
+			return CompletableFuture.completedFuture(local.get());
+		}
+
+		CompletableFuture<String> result = CompletableFuture.supplyAsync(remote, textExecutor);
+		if (mode == TextGenerationMode.HEDGED) {
+			CompletableFuture.runAsync(() -> {
+				if (!result.isDone() && result.complete(local.get())) {
+					CardGenerator.LOGGER.info("Text model did not answer in time, proceed with local text");
+				}
+			}, hedgeDelay);
+		}
+		return result;
+	}
+
 	private String getVisualDescription(Pokemon pokemon) {
 		StringBuilder sb = new StringBuilder();
 		String subjectMainLine = getFullSubjectDescription(pokemon);
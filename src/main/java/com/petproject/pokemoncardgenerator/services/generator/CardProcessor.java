@@ -1,21 +1,29 @@
 package com.petproject.pokemoncardgenerator.services.generator;
 
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import com.petproject.pokemoncardgenerator.model.EncodedCard;
 import com.petproject.pokemoncardgenerator.model.Pokemon;
 import com.petproject.pokemoncardgenerator.model.PokemonParameters;
 import com.petproject.pokemoncardgenerator.services.ai.ServiceForGeneratingGenerativeAIResults;
-import com.petproject.pokemoncardgenerator.services.renderer.CardRenderer;
+import com.petproject.pokemoncardgenerator.services.encoder.CardEncoder;
+import com.petproject.pokemoncardgenerator.services.encoder.OutputChannel;
+import com.petproject.pokemoncardgenerator.services.generator.config.GeneratorExecutorConfig;
+import com.petproject.pokemoncardgenerator.services.renderer.PokemonCardRenderer;
 
 /**
- * uniting service for generating parameters for card and generating card images themselves
+ * uniting service for generating parameters for card and generating card images themselves.
+ * Every card of the series goes through its own chain of stages (card parameters, image fetch, render, encode)
+ * on the pipeline executor, so cards of the same series overlap instead of waiting for each other.
  */
 @Service
 public class CardProcessor {
@@ -23,32 +31,59 @@ public class CardProcessor {
 	private static final Logger LOGGER = LoggerFactory.getLogger(CardProcessor.class);
 
 	private final CardGenerator cardGenerator;
-	private final CardRenderer cardRenderer;
+	private final PokemonCardRenderer cardRenderer;
+	private final CardEncoder cardEncoder;
+	private final ExecutorService pipelineExecutor;
 
 	private final ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults;
 
-	public CardProcessor(CardGenerator cardGenerator, CardRenderer cardRenderer,
-			ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults) {
+	public CardProcessor(CardGenerator cardGenerator, PokemonCardRenderer cardRenderer, CardEncoder cardEncoder,
+			ServiceForGeneratingGenerativeAIResults serviceForGeneratingAIResults,
+			@Qualifier(GeneratorExecutorConfig.CARD_PIPELINE_EXECUTOR) ExecutorService pipelineExecutor) {
 		this.cardGenerator = cardGenerator;
 		this.cardRenderer = cardRenderer;
+		this.cardEncoder = cardEncoder;
 		this.serviceForGeneratingAIResults = serviceForGeneratingAIResults;
+		this.pipelineExecutor = pipelineExecutor;
 	}
 
-	public List<BufferedImage> generateCards(PokemonParameters parameters) {
+	/**
+	 * @return cards encoded for sending as Telegram photos
+	 */
+	public List<EncodedCard> generateCards(PokemonParameters parameters) {
+		return generateCards(parameters, OutputChannel.TELEGRAM_PHOTO);
+	}
+
+	/**
+	 * @return rendered and encoded cards in series order. Cards, which failed on any stage, are skipped.
+	 */
+	public List<EncodedCard> generateCards(PokemonParameters parameters, OutputChannel channel) {
 		LOGGER.info("Input parameters for generating pokemon cards: {}\n Starting to generate pokemons...", parameters);
 
-		List<Pokemon> pokemonSeries = cardGenerator.generatePokemons(parameters);
-		List<BufferedImage> pokemonCards = new ArrayList<>();
+		List<CompletableFuture<EncodedCard>> cardFutures = cardGenerator.generatePokemonsAsync(parameters,
+				pipelineExecutor).stream().map(pokemon -> processCard(pokemon, channel)).toList();
 
-		LOGGER.info("Starting to generate pokemon cards...");
-		for (Pokemon pokemon : pokemonSeries) {
-			BufferedImage pokemonImage = serviceForGeneratingAIResults.generatePokemonImage(pokemon.getImagePrompt());
-			if (pokemonImage != null) {
-				pokemonCards.add(cardRenderer.renderCard(pokemon, pokemonImage));
+		List<EncodedCard> pokemonCards = new ArrayList<>();
+		for (int i = 0; i < cardFutures.size(); i++) {
+			try {
+				EncodedCard card = cardFutures.get(i).join();
+				if (card != null) {
+					pokemonCards.add(card);
+				}
+			} catch (CompletionException e) {
+				LOGGER.error("Card {} of the series failed, proceeding without it", i, e.getCause());
 			}
 		}
 
 		LOGGER.info("Finished generating pokemon cards");
-		return pokemonCards.stream().filter(Objects::nonNull).toList();
+		return pokemonCards;
+	}
+
+	private CompletableFuture<EncodedCard> processCard(CompletableFuture<Pokemon> pokemonFuture, OutputChannel channel) {
+		return pokemonFuture.thenCompose(pokemon -> CompletableFuture
+				.supplyAsync(() -> serviceForGeneratingAIResults.generatePokemonImage(pokemon.getImagePrompt()),
+						pipelineExecutor)
+				.thenApply(pokemonImage -> pokemonImage != null ? cardRenderer.renderCard(pokemon, pokemonImage) : null)
+				.thenApply(card -> card != null ? cardEncoder.encode(card, channel) : null));
 	}
 }
@@ -0,0 +1,39 @@
+package com.petproject.pokemoncardgenerator.services.generator.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.petproject.pokemoncardgenerator.services.threads.ThreadFactoryProvider;
+
+/**
+ * executors used by the card generation pipeline, fixed pools with platform threads and a thread per task with
+ * virtual ones (see {@link ThreadFactoryProvider})
+ */
+@Configuration
+public class GeneratorExecutorConfig {
+
+	public static final String CARD_PIPELINE_EXECUTOR = "cardPipelineExecutor";
+	public static final String TEXT_GENERATION_EXECUTOR = "textGenerationExecutor";
+
+	/**
+	 * runs the stages of series cards (text generation, image fetch, render), so cards of one series overlap
+	 */
+	@Bean(name = CARD_PIPELINE_EXECUTOR, destroyMethod = "shutdown")
+	public ExecutorService cardPipelineExecutor(@Value("${generation.pipeline.threads:8}") int threads,
+			ThreadFactoryProvider threadFactoryProvider) {
+		return threadFactoryProvider.newExecutor("card-pipeline-", threads);
+	}
+
+	/**
+	 * runs independent text generation requests of one card (ability names, name, description) in parallel.
+	 * Kept apart from the pipeline executor, as pipeline threads block waiting for these requests.
+	 */
+	@Bean(name = TEXT_GENERATION_EXECUTOR, destroyMethod = "shutdown")
+	public ExecutorService textGenerationExecutor(@Value("${generation.text.threads:16}") int threads,
+			ThreadFactoryProvider threadFactoryProvider) {
+		return threadFactoryProvider.newExecutor("text-generation-", threads);
+	}
+}
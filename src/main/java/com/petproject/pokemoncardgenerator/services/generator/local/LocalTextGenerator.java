@@ -0,0 +1,157 @@
+package com.petproject.pokemoncardgenerator.services.generator.local;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.petproject.pokemoncardgenerator.model.Pokemon;
+import com.petproject.pokemoncardgenerator.model.contentpool.DescriptionContentPool;
+import com.petproject.pokemoncardgenerator.model.details.Ability;
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+
+/**
+ * in-process generator of names and descriptions, answering in microseconds without the text model.
+ * Names come from character-level Markov chains per element, trained on the predefined ability names and on the
+ * bundled creature names; descriptions are Pokedex-style templates filled from the style and the abilities.
+ * Used when AI is disabled, as the fallback of failed text generations, and for the local and hedged text modes.
+ */
+@Service
+public class LocalTextGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LocalTextGenerator.class);
+
+	private static final String ABILITY_NAMES_PATH = "generator/abilities/ability_names.json";
+	private static final String CREATURE_NAMES_PATH = "generator/names/creature_names.json";
+	private static final int ORDER = 2;
+	private static final int MAX_NAME_LENGTH = 11;
+	private static final int MAX_ABILITY_WORD_LENGTH = 10;
+	private static final int MAX_ABILITY_NAME_LENGTH = 20;
+
+	private final Map<PokemonElement, MarkovNameModel> nameModels = new EnumMap<>(PokemonElement.class);
+	private final Map<PokemonElement, MarkovNameModel> abilityWordModels = new EnumMap<>(PokemonElement.class);
+	// first and last words of the predefined two-word ability names, recombined into new ones
+	private final Map<PokemonElement, List<String>> abilityFirstWords = new EnumMap<>(PokemonElement.class);
+	private final Map<PokemonElement, List<String>> abilityLastWords = new EnumMap<>(PokemonElement.class);
+
+	public LocalTextGenerator() {
+		Map<PokemonElement, List<String>> creatureNames = byElement(readJson(CREATURE_NAMES_PATH));
+		Map<PokemonElement, List<String>> abilityNames = byElement(readJson(ABILITY_NAMES_PATH));
+
+		for (PokemonElement element : PokemonElement.values()) {
+			// neutral words are mixed into every element, so that small pools still give variety
+			List<String> names = withNeutral(creatureNames, element);
+			nameModels.put(element, new MarkovNameModel(names, ORDER));
+
+			List<String> singleWords = new ArrayList<>();
+			List<String> firstWords = new ArrayList<>();
+			List<String> lastWords = new ArrayList<>();
+			for (String abilityName : withNeutral(abilityNames, element)) {
+				String[] words = abilityName.trim().split("\\s+");
+				if (words.length == 1) {
+					singleWords.add(words[0]);
+				} else {
+					firstWords.add(StringUtils.capitalize(words[0]));
+					lastWords.add(StringUtils.capitalize(words[words.length - 1]));
+				}
+			}
+			abilityWordModels.put(element, new MarkovNameModel(singleWords, ORDER));
+			abilityFirstWords.put(element, firstWords);
+			abilityLastWords.put(element, lastWords);
+		}
+		LOGGER.info("Local text generator is trained on {} creature names and {} ability names",
+				creatureNames.values().stream().mapToInt(List::size).sum(),
+				abilityNames.values().stream().mapToInt(List::size).sum());
+	}
+
+	public String generateAbilityName(Ability ability) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		PokemonElement element = ability.getElement();
+		List<String> firstWords = abilityFirstWords.getOrDefault(element, List.of());
+		List<String> lastWords = abilityLastWords.getOrDefault(element, List.of());
+
+		if (!firstWords.isEmpty() && !lastWords.isEmpty() && random.nextBoolean()) {
+			String first = firstWords.get(random.nextInt(firstWords.size()));
+			String last = lastWords.get(random.nextInt(lastWords.size()));
+			if (!first.equalsIgnoreCase(last) && first.length() + last.length() < MAX_ABILITY_NAME_LENGTH) {
+				return first + " " + last;
+			}
+		}
+		return abilityWordModels.get(element).generate(random, "", 4, MAX_ABILITY_WORD_LENGTH);
+	}
+
+	/**
+	 * @return new name, which often starts like the subject of the card, e.g. "Wol..." for a wolf
+	 */
+	public String generatePokemonName(Pokemon pokemon) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String prefix = "";
+		if (pokemon.getStyle() != null && pokemon.getStyle().getSubject() != null && random.nextBoolean()) {
+			String[] subjectWords = pokemon.getStyle().getSubject().trim().split("\\s+");
+			String subject = subjectWords[subjectWords.length - 1];
+			prefix = subject.length() >= 3 ? subject.substring(0, 3) : "";
+		}
+		return nameModels.get(pokemon.getElement()).generate(random, prefix, 5, MAX_NAME_LENGTH);
+	}
+
+	public String generatePokemonDescription(Pokemon pokemon) {
+		String environment = pokemon.getStyle() != null && pokemon.getStyle().getEnvironment() != null ?
+				pokemon.getStyle().getEnvironment() :
+				"quiet";
+		List<Ability> abilities = pokemon.getAbilities();
+		String abilityName = abilities == null || abilities.isEmpty() ? "its strength" :
+				abilities.get(ThreadLocalRandom.current().nextInt(abilities.size())).getName();
+
+		return String.format(DescriptionContentPool.getRandomTemplate(), pokemon.getName(), environment,
+				DescriptionContentPool.getRandomHabit(pokemon.getElement()), abilityName);
+	}
+
+	private static List<String> withNeutral(Map<PokemonElement, List<String>> words, PokemonElement element) {
+		List<String> result = new ArrayList<>(words.getOrDefault(element, List.of()));
+		if (element != PokemonElement.NEUTRAL) {
+			result.addAll(words.getOrDefault(PokemonElement.NEUTRAL, List.of()));
+		}
+		return result;
+	}
+
+	/**
+	 * groups the lists by the element named in the key, e.g. "fire" or "fire_2_pure_standard"
+	 */
+	private static Map<PokemonElement, List<String>> byElement(Map<String, List<String>> source) {
+		Map<PokemonElement, List<String>> result = new EnumMap<>(PokemonElement.class);
+		source.forEach((key, words) -> {
+			String elementName = StringUtils.capitalize(key.split("_")[0].toLowerCase());
+			PokemonElement element = PokemonElement.get(elementName);
+			if (element != PokemonElement.UNKNOWN) {
+				result.computeIfAbsent(element, ignored -> new ArrayList<>()).addAll(words);
+			}
+		});
+		return result;
+	}
+
+	private static Map<String, List<String>> readJson(String path) {
+		try (InputStream is = LocalTextGenerator.class.getClassLoader().getResourceAsStream(path)) {
+			if (is == null) {
+				LOGGER.error("Text resource NOT found at: {}", path);
+				return Map.of();
+			}
+			return JSON.parseObject(new String(is.readAllBytes(), StandardCharsets.UTF_8), new TypeReference<>() {
+
+			});
+		} catch (IOException e) {
+			LOGGER.error("Error loading text resource: {}", path, e);
+			return Map.of();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.petproject.pokemoncardgenerator.services.generator.local;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * character-level Markov chain over lowercase words. Every state is the previous {@code order} characters,
+ * the next character is drawn with the frequency it had after that state in the training words.
+ * Generated words, which repeat a training word, are rejected, so that names are new but sound alike.
+ */
+final class MarkovNameModel {
+
+	private static final char START = '^';
+	private static final char END = '$';
+	private static final int ATTEMPTS = 30;
+
+	private final int order;
+	// next characters of every state, repeated according to their frequency
+	private final Map<String, char[]> transitions = new HashMap<>();
+	private final Set<String> trainingWords = new HashSet<>();
+	private final List<String> trainingWordList;
+
+	MarkovNameModel(Collection<String> words, int order) {
+		this.order = order;
+		Map<String, StringBuilder> builders = new HashMap<>();
+		for (String word : words) {
+			String normalized = normalize(word);
+			if (normalized.isEmpty()) {
+				continue;
+			}
+			trainingWords.add(normalized);
+			String padded = String.valueOf(START).repeat(order) + normalized + END;
+			for (int i = 0; i + order < padded.length(); i++) {
+				builders.computeIfAbsent(padded.substring(i, i + order), state -> new StringBuilder())
+						.append(padded.charAt(i + order));
+			}
+		}
+		builders.forEach((state, next) -> transitions.put(state, next.toString().toCharArray()));
+		this.trainingWordList = List.copyOf(trainingWords);
+	}
+
+	/**
+	 * @param prefix beginning of the word, used only if the chain knows how to continue it
+	 * @return capitalized word of the given length, or a training word if no new word came out
+	 */
+	String generate(Random random, String prefix, int minLength, int maxLength) {
+		String start = normalize(prefix);
+		for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+			// the prefix is given up for the second half of the attempts
+			String word = walk(random, attempt < ATTEMPTS / 2 ? start : "", maxLength);
+			if (word != null && word.length() >= minLength && !trainingWords.contains(word)) {
+				return StringUtils.capitalize(word);
+			}
+		}
+		return trainingWordList.isEmpty() ? "" :
+				StringUtils.capitalize(trainingWordList.get(random.nextInt(trainingWordList.size())));
+	}
+
+	private String walk(Random random, String prefix, int maxLength) {
+		StringBuilder word = new StringBuilder(prefix);
+		String padded = String.valueOf(START).repeat(order) + prefix;
+		String state = padded.substring(padded.length() - order);
+		while (word.length() <= maxLength) {
+			char[] next = transitions.get(state);
+			if (next == null) {
+				return null;
+			}
+			char c = next[random.nextInt(next.length)];
+			if (c == END) {
+				return word.toString();
+			}
+			word.append(c);
+			state = state.substring(1) + c;
+		}
+		return null;
+	}
+
+	private static String normalize(String word) {
+		return word == null ? "" : word.toLowerCase().replaceAll("[^a-z]", "");
+	}
+}
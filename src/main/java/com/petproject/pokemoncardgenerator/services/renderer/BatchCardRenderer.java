@@ -0,0 +1,101 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.model.Pokemon;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * renders many cards at once for bulk jobs (showcase decks, re-rendering after a template change).
+ * Cards are spread over a work-stealing pool sized to the cores. Workers render with the renderer selected by
+ * renderer.engine, both engines keep their buffers per thread, so a worker reuses them for all cards it takes.
+ * A failed card does not affect the others.
+ */
+@Component
+public class BatchCardRenderer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchCardRenderer.class);
+
+	private final PokemonCardRenderer renderer;
+	private final ForkJoinPool pool;
+
+	public BatchCardRenderer(PokemonCardRenderer renderer, @Value("${renderer.batch.parallelism:0}") int parallelism) {
+		this.renderer = renderer;
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		this.pool = new ForkJoinPool(threads, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("card-render-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * @param pokemons cards to render
+	 * @param pokemonImages artwork of every card, in the same order
+	 * @return one result per card in the order of the input
+	 */
+	public List<BatchRenderResult> renderAll(List<Pokemon> pokemons, List<BufferedImage> pokemonImages) {
+		if (pokemons.size() != pokemonImages.size()) {
+			throw new IllegalArgumentException(
+					"Got " + pokemons.size() + " pokemons, but " + pokemonImages.size() + " images");
+		}
+
+		List<Callable<BatchRenderResult>> tasks = new ArrayList<>(pokemons.size());
+		for (int i = 0; i < pokemons.size(); i++) {
+			int index = i;
+			tasks.add(() -> render(index, pokemons.get(index), pokemonImages.get(index)));
+		}
+
+		List<BatchRenderResult> results = new ArrayList<>(tasks.size());
+		List<Future<BatchRenderResult>> futures = pool.invokeAll(tasks);
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				results.add(futures.get(i).get());
+			} catch (ExecutionException e) {
+				results.add(BatchRenderResult.failure(i, e.getCause() instanceof Exception cause ? cause : e));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				results.add(BatchRenderResult.failure(i, e));
+			}
+		}
+		return results;
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private BatchRenderResult render(int index, Pokemon pokemon, BufferedImage pokemonImage) {
+		try {
+			if (pokemonImage == null) {
+				return BatchRenderResult.failure(index, new IllegalArgumentException("Artwork is absent"));
+			}
+			BufferedImage card = renderer.renderCard(pokemon, pokemonImage);
+			if (card == null) {
+				return BatchRenderResult.failure(index, new IllegalStateException("Card template is absent"));
+			}
+			return BatchRenderResult.success(index, card);
+		} catch (RuntimeException e) {
+			LOGGER.error("Failed to render card {} of the batch", index, e);
+			return BatchRenderResult.failure(index, e);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * outcome of rendering one card of a batch: either the card or the reason it failed
+ */
+public final class BatchRenderResult {
+
+	private final int index;
+	private final BufferedImage card;
+	private final Exception error;
+
+	private BatchRenderResult(int index, BufferedImage card, Exception error) {
+		this.index = index;
+		this.card = card;
+		this.error = error;
+	}
+
+	static BatchRenderResult success(int index, BufferedImage card) {
+		return new BatchRenderResult(index, card, null);
+	}
+
+	static BatchRenderResult failure(int index, Exception error) {
+		return new BatchRenderResult(index, null, error);
+	}
+
+	/**
+	 * @return position of the card in the batch
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public boolean isSuccessful() {
+		return card != null;
+	}
+
+	public BufferedImage getCard() {
+		return card;
+	}
+
+	public Exception getError() {
+		return error;
+	}
+}
@@ -0,0 +1,178 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.Constants;
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+import com.petproject.pokemoncardgenerator.model.details.enums.Rarity;
+import com.petproject.pokemoncardgenerator.services.renderer.scaling.ImageScalingEngine;
+import com.petproject.pokemoncardgenerator.services.renderer.scaling.ScalingMode;
+
+/**
+ * registry of static card assets, loaded once on startup: card templates, element icons (already resized for the
+ * ability cost and status slots) and all fonts used by the renderer.
+ * Returned images and fonts are shared between renders, so they must be treated as read-only.
+ */
+@Component
+public class CardAssets {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CardAssets.class);
+
+	private static final String TEMPLATES_PATH = "generator/cards/templates/";
+	private static final String ELEMENTS_PATH = "generator/elements/";
+	private static final String FONTS_PATH = "generator/font/";
+
+	private static final float[] RARITY_SYMBOL_SIZES = { 12f, 12f, 14f };
+
+	private final Map<PokemonElement, BufferedImage> templates = new EnumMap<>(PokemonElement.class);
+	private final Map<PokemonElement, BufferedImage> costIcons = new EnumMap<>(PokemonElement.class);
+	private final Map<PokemonElement, BufferedImage> statusIcons = new EnumMap<>(PokemonElement.class);
+	private final Map<Rarity, Font> raritySymbolFonts = new EnumMap<>(Rarity.class);
+
+	private final Font nameFont;
+	private final Font hpFont;
+	private final Font abilityNameFont;
+	private final Font abilityPowerFont;
+	private final Font descriptionFont;
+
+	public CardAssets(ImageScalingEngine scalingEngine) {
+		for (PokemonElement element : PokemonElement.values()) {
+			if (element == PokemonElement.UNKNOWN) {
+				continue;
+			}
+			String elementName = element.getElementName().toLowerCase();
+
+			BufferedImage template = readImage(TEMPLATES_PATH + elementName + "_card.png");
+			if (template != null) {
+				templates.put(element, template);
+			}
+
+			BufferedImage icon = readImage(ELEMENTS_PATH + elementName + "_element.png");
+			if (icon != null) {
+				// icons are scaled only once, so the sharpest mode is affordable here
+				costIcons.put(element, scalingEngine.scale(icon, Constants.ELEMENT_SIZE, Constants.ELEMENT_SIZE, null,
+						ScalingMode.LANCZOS));
+				statusIcons.put(element, scalingEngine.scale(icon, Constants.STATUS_SIZE, Constants.STATUS_SIZE, null,
+						ScalingMode.LANCZOS));
+			}
+		}
+
+		Font boldFont = loadFont(FONTS_PATH + "Cabin-Bold.ttf", Font.BOLD);
+		Font regularFont = loadFont(FONTS_PATH + "Cabin_Condensed-Regular.ttf", Font.PLAIN);
+		Font symbolFont = loadFont(FONTS_PATH + "NotoSansSymbols2-Regular.ttf", Font.PLAIN);
+
+		nameFont = boldFont.deriveFont(28f);
+		hpFont = regularFont.deriveFont(28f);
+		abilityNameFont = boldFont.deriveFont(24f);
+		abilityPowerFont = regularFont.deriveFont(32f);
+		descriptionFont = regularFont.deriveFont(Font.ITALIC, 12f);
+
+		for (Rarity rarity : Rarity.values()) {
+			if (rarity.ordinal() < RARITY_SYMBOL_SIZES.length) {
+				raritySymbolFonts.put(rarity, symbolFont.deriveFont(RARITY_SYMBOL_SIZES[rarity.ordinal()]));
+			}
+		}
+
+		LOGGER.info("Card assets are loaded: {} templates, {} element icons", templates.size(), costIcons.size());
+	}
+
+	public BufferedImage getTemplate(PokemonElement element) {
+		return templates.get(element);
+	}
+
+	/**
+	 * @return element icon resized to {@link Constants#ELEMENT_SIZE}, used for ability costs
+	 */
+	public BufferedImage getCostIcon(PokemonElement element) {
+		return costIcons.get(element);
+	}
+
+	/**
+	 * @return element icon resized to {@link Constants#STATUS_SIZE}, used for weakness and resistance
+	 */
+	public BufferedImage getStatusIcon(PokemonElement element) {
+		return statusIcons.get(element);
+	}
+
+	public Font getNameFont() {
+		return nameFont;
+	}
+
+	public Font getHpFont() {
+		return hpFont;
+	}
+
+	public Font getAbilityNameFont() {
+		return abilityNameFont;
+	}
+
+	public Font getAbilityPowerFont() {
+		return abilityPowerFont;
+	}
+
+	public Font getDescriptionFont() {
+		return descriptionFont;
+	}
+
+	public Font getRaritySymbolFont(Rarity rarity) {
+		return raritySymbolFonts.get(rarity);
+	}
+
+	/**
+	 * decodes image and converts it to INT_ARGB, so that the following draws would not need any conversion
+	 */
+	private static BufferedImage readImage(String path) {
+		try (InputStream is = CardAssets.class.getClassLoader().getResourceAsStream(path)) {
+			if (is == null) {
+				LOGGER.error("Image resource NOT found at: {}", path);
+				return null;
+			}
+			BufferedImage image = ImageIO.read(is);
+			if (image == null || image.getType() == BufferedImage.TYPE_INT_ARGB) {
+				return image;
+			}
+
+			BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(),
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = converted.createGraphics();
+			g.drawImage(image, 0, 0, null);
+			g.dispose();
+			return converted;
+		} catch (IOException e) {
+			LOGGER.error("Error loading image resource: {}", path, e);
+			return null;
+		}
+	}
+
+	private static Font loadFont(String path, int style) {
+		try (InputStream is = CardAssets.class.getClassLoader().getResourceAsStream(path)) {
+			if (is == null) {
+				LOGGER.error("Font resource NOT found at: {}", path);
+				return new Font("SansSerif", style, 14);
+			}
+			Font font = Font.createFont(Font.TRUETYPE_FONT, is);
+			GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+			LOGGER.info("Font resource loaded successfully: {}", path);
+			return font.deriveFont(style, 14f);
+		} catch (FontFormatException e) {
+			LOGGER.error("Invalid font format: {}", path, e);
+		} catch (IOException e) {
+			LOGGER.error("Failed to load font (I/O): {}", path, e);
+		}
+		return new Font("SansSerif", style, 14);
+	}
+}
@@ -0,0 +1,76 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.Constants;
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+
+/**
+ * per-element card base: template with weakness, resistance and retreat icons already drawn on it.
+ * Built lazily once per element and shared read-only between renders.
+ */
+@Component
+public class CardBaseOverlays {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CardBaseOverlays.class);
+
+	private final CardAssets cardAssets;
+	private final Map<PokemonElement, BufferedImage> overlays = new ConcurrentHashMap<>();
+
+	public CardBaseOverlays(CardAssets cardAssets) {
+		this.cardAssets = cardAssets;
+	}
+
+	/**
+	 * @return base overlay of the element, or null if its template is absent
+	 */
+	public BufferedImage get(PokemonElement element) {
+		BufferedImage overlay = overlays.get(element);
+		if (overlay != null) {
+			return overlay;
+		}
+
+		BufferedImage template = cardAssets.getTemplate(element);
+		if (template == null) {
+			return null;
+		}
+		// built outside of computeIfAbsent, two threads may race to build it, both results are identical
+		overlay = new BufferedImage(template.getWidth(), template.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = overlay.createGraphics();
+		g.drawImage(template, 0, 0, null);
+		drawWeaknessAndResist(element, overlay, g);
+		g.dispose();
+
+		BufferedImage previous = overlays.putIfAbsent(element, overlay);
+		return previous != null ? previous : overlay;
+	}
+
+	public int size() {
+		return overlays.size();
+	}
+
+	private void drawWeaknessAndResist(PokemonElement element, BufferedImage canvas, Graphics2D g) {
+		PokemonElement resist = PokemonElement.getResist(element);
+		PokemonElement weak = PokemonElement.getWeakness(element);
+
+		if (weak != null) drawElement(g, weak, Constants.STATUS_X_GAP);
+		if (resist != null) drawElement(g, resist, canvas.getWidth() / 2);
+		drawElement(g, PokemonElement.NEUTRAL, canvas.getWidth() - Constants.STATUS_X_GAP);
+	}
+
+	private void drawElement(Graphics2D g, PokemonElement element, int x) {
+		BufferedImage img = cardAssets.getStatusIcon(element);
+		if (img == null) {
+			LOGGER.error("Missing or unreadable element icon: {}", element.getElementName());
+			return;
+		}
+		g.drawImage(img, x - Constants.STATUS_SIZE / 2, Constants.STATUS_Y_POSITION - Constants.STATUS_SIZE / 2, null);
+	}
+}
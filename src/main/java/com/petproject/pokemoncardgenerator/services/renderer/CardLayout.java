@@ -0,0 +1,86 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.Graphics2D;
+
+import com.petproject.pokemoncardgenerator.Constants;
+
+/**
+ * positions of the card parts and text layout shared by the renderers, so that they produce identical cards
+ */
+final class CardLayout {
+
+	static final int ARTWORK_CENTER_Y = 210;
+	static final int NAME_X = 48;
+	static final int TITLE_BASELINE_Y = 64;
+	static final int HP_RIGHT_OFFSET = 156;
+	static final int ABILITIES_CENTER_Y = 450;
+	static final int ABILITY_SEPARATOR_MARGIN = 36;
+	static final int ABILITY_NAME_X = Constants.ABILITY_WIDTH / 2 - 70;
+	static final int ABILITY_NAME_BASELINE_Y = Constants.ABILITY_HEIGHT / 2 + 10;
+	static final int ABILITY_POWER_X = Constants.ABILITY_WIDTH - 45;
+	static final int ABILITY_POWER_BASELINE_Y = Constants.ABILITY_HEIGHT / 2 + 12;
+	static final int DESCRIPTION_X = 58;
+	static final int DESCRIPTION_Y = 580;
+	static final int RARITY_RIGHT_OFFSET = 74;
+	static final int RARITY_BASELINE_Y = 634;
+	static final String[] RARITY_SYMBOLS = { "\u2B24", "\u25C6", "\u2605" };
+
+	private CardLayout() {
+	}
+
+	/**
+	 * @return top of the first drawn ability panel, abilities are drawn in reversed order
+	 */
+	static int abilitiesOriginY(int abilities) {
+		return (abilities == 1) ? ABILITIES_CENTER_Y - Constants.ABILITY_HEIGHT / 2 :
+				(abilities == 2) ? ABILITIES_CENTER_Y - Constants.ABILITY_HEIGHT - Constants.ABILITY_COST_GAP / 2 : 0;
+	}
+
+	/**
+	 * @return centers of cost icons inside the cost area of the ability panel
+	 */
+	static int[][] costPositions(int count) {
+		int[][] positions = new int[count][2];
+		int cx = Constants.ABILITY_COST_WIDTH / 2;
+		int cy = Constants.ABILITY_HEIGHT / 2;
+		int dx = Constants.ELEMENT_SIZE + Constants.ABILITY_GAP;
+
+		if (count == 1) positions[0] = new int[]{cx, cy};
+		else if (count == 2) {
+			positions[0] = new int[]{cx - dx / 2, cy};
+			positions[1] = new int[]{cx + dx / 2, cy};
+		} else if (count == 3) {
+			positions[0] = new int[]{cx - dx / 2, cy - dx / 2};
+			positions[1] = new int[]{cx + dx / 2, cy - dx / 2};
+			positions[2] = new int[]{cx, cy + dx / 2};
+		} else if (count == 4) {
+			positions[0] = new int[]{cx - dx / 2, cy - dx / 2};
+			positions[1] = new int[]{cx + dx / 2, cy - dx / 2};
+			positions[2] = new int[]{cx - dx / 2, cy + dx / 2};
+			positions[3] = new int[]{cx + dx / 2, cy + dx / 2};
+		}
+		return positions;
+	}
+
+	/**
+	 * draws every sentence on its own line, long sentences are wrapped once after a comma or a space
+	 */
+	static void drawDescription(Graphics2D g, String text, int x, int y) {
+		for (String line : text.split("\\.")) {
+			if (line.length() > 85 && line.contains(",")) {
+				g.drawString(line.substring(0, line.lastIndexOf(",") + 1), x, y += g.getFontMetrics().getHeight());
+				g.drawString(line.substring(line.lastIndexOf(",") + 1), x, y += g.getFontMetrics().getHeight());
+			} else if (line.length() >= 85) {
+				int idx = line.indexOf(" ", 75);
+				if (idx != -1) {
+					g.drawString(line.substring(0, idx + 1), x, y += g.getFontMetrics().getHeight());
+					g.drawString(line.substring(idx), x, y += g.getFontMetrics().getHeight());
+				} else {
+					g.drawString(line, x, y += g.getFontMetrics().getHeight());
+				}
+			} else {
+				g.drawString(line, x, y += g.getFontMetrics().getHeight());
+			}
+		}
+	}
+}
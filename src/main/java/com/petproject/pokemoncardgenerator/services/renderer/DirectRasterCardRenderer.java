@@ -0,0 +1,180 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.Constants;
+import com.petproject.pokemoncardgenerator.model.Pokemon;
+import com.petproject.pokemoncardgenerator.model.details.Ability;
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+import com.petproject.pokemoncardgenerator.services.renderer.scaling.ImageScalingEngine;
+
+/**
+ * renderer drawing every part straight onto one canvas, enabled with renderer.engine=direct-raster.
+ * The canvas and the scaled artwork buffer are kept per thread and cleared between renders, ability panels are drawn
+ * in place through translation and clipping instead of temporary images. The only allocation per card is the copy
+ * of the finished canvas, which is handed over to the caller.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "renderer.engine", havingValue = "direct-raster")
+public class DirectRasterCardRenderer implements PokemonCardRenderer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DirectRasterCardRenderer.class);
+
+	private final CardAssets cardAssets;
+	private final CardBaseOverlays baseOverlays;
+	private final ImageScalingEngine scalingEngine;
+
+	private final ThreadLocal<BufferedImage> canvasBuffer = new ThreadLocal<>();
+	private final ThreadLocal<BufferedImage> artworkBuffer = new ThreadLocal<>();
+
+	public DirectRasterCardRenderer(CardAssets cardAssets, CardBaseOverlays baseOverlays,
+			ImageScalingEngine scalingEngine) {
+		this.cardAssets = cardAssets;
+		this.baseOverlays = baseOverlays;
+		this.scalingEngine = scalingEngine;
+	}
+
+	@Override
+	public BufferedImage renderCard(Pokemon pokemon, BufferedImage pokemonImage) {
+		LOGGER.info("Starting to generate image for given pokemon: {}", pokemon);
+		BufferedImage overlay = baseOverlays.get(pokemon.getElement());
+		if (overlay == null) {
+			LOGGER.error("Card template is absent, cannot proceed further");
+			return null;
+		}
+
+		BufferedImage canvas = getCanvas(overlay.getWidth(), overlay.getHeight());
+		Graphics2D g = canvas.createGraphics();
+		clear(g, canvas);
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+		drawArtwork(pokemonImage, overlay, g);
+
+		g.setFont(cardAssets.getNameFont());
+		g.setColor(Color.BLACK);
+		g.drawString(pokemon.getName(), CardLayout.NAME_X, CardLayout.TITLE_BASELINE_Y);
+
+		g.setFont(cardAssets.getHpFont());
+		g.setColor(Color.RED);
+		g.drawString(pokemon.getHp() + " HP", canvas.getWidth() - CardLayout.HP_RIGHT_OFFSET,
+				CardLayout.TITLE_BASELINE_Y);
+
+		drawAbilities(pokemon.getAbilities(), canvas.getWidth(), g);
+
+		g.setFont(cardAssets.getDescriptionFont());
+		g.setColor(Color.BLACK);
+		CardLayout.drawDescription(g, pokemon.getDescription(), CardLayout.DESCRIPTION_X, CardLayout.DESCRIPTION_Y);
+		g.setFont(cardAssets.getRaritySymbolFont(pokemon.getRarity()));
+		g.drawString(CardLayout.RARITY_SYMBOLS[pokemon.getRarity().ordinal()],
+				canvas.getWidth() - CardLayout.RARITY_RIGHT_OFFSET, CardLayout.RARITY_BASELINE_Y);
+
+		g.dispose();
+		LOGGER.info("Finished image generation.");
+		return copyOf(canvas);
+	}
+
+	private void drawArtwork(BufferedImage pokemonImage, BufferedImage overlay, Graphics2D g) {
+		double scale = Constants.IDEAL_CARD_WIDTH / (double) pokemonImage.getWidth();
+		int newW = (int) (pokemonImage.getWidth() * scale);
+		int newH = (int) (pokemonImage.getHeight() * scale);
+
+		BufferedImage scaled = scalingEngine.scale(pokemonImage, newW, newH, artworkBuffer.get());
+		artworkBuffer.set(scaled);
+
+		g.drawImage(scaled, (overlay.getWidth() - scaled.getWidth()) / 2,
+				CardLayout.ARTWORK_CENTER_Y - scaled.getHeight() / 2, null);
+		g.drawImage(overlay, 0, 0, null);
+	}
+
+	private void drawAbilities(List<Ability> abilities, int canvasWidth, Graphics2D g) {
+		int x = (canvasWidth - Constants.ABILITY_WIDTH) / 2;
+		int originY = CardLayout.abilitiesOriginY(abilities.size());
+
+		AffineTransform transform = g.getTransform();
+		Shape clip = g.getClip();
+		// the last ability is drawn at the top
+		for (int i = 0; i < abilities.size(); i++) {
+			int y = originY + i * (Constants.ABILITY_HEIGHT + Constants.ABILITY_COST_GAP);
+			g.translate(x, y);
+			g.clipRect(0, 0, Constants.ABILITY_WIDTH, Constants.ABILITY_HEIGHT);
+			drawAbility(abilities.get(abilities.size() - 1 - i), g);
+			g.setTransform(transform);
+			g.setClip(clip);
+		}
+
+		if (abilities.size() > 1) {
+			int y = originY + Constants.ABILITY_HEIGHT;
+			g.setColor(Color.BLACK);
+			g.drawLine(CardLayout.ABILITY_SEPARATOR_MARGIN, y, canvasWidth - CardLayout.ABILITY_SEPARATOR_MARGIN, y);
+		}
+	}
+
+	/**
+	 * draws the panel with the origin at its top left corner, clipped to the panel bounds
+	 */
+	private void drawAbility(Ability ability, Graphics2D g) {
+		List<String> elements = ability.costsAsElements();
+		int[][] positions = CardLayout.costPositions(elements.size());
+		Shape panelClip = g.getClip();
+		g.clipRect(0, 0, Constants.ABILITY_COST_WIDTH, Constants.ABILITY_HEIGHT);
+		for (int i = 0; i < elements.size(); i++) {
+			BufferedImage icon = cardAssets.getCostIcon(PokemonElement.get(elements.get(i)));
+			if (icon == null) {
+				LOGGER.error("Unable to load cost element icon for: {}", elements.get(i));
+				continue;
+			}
+			g.drawImage(icon, positions[i][0] - Constants.ELEMENT_SIZE / 2,
+					positions[i][1] - Constants.ELEMENT_SIZE / 2, null);
+		}
+		g.setClip(panelClip);
+
+		g.setFont(cardAssets.getAbilityNameFont());
+		g.setColor(Color.BLACK);
+		g.drawString(ability.getName(), CardLayout.ABILITY_NAME_X, CardLayout.ABILITY_NAME_BASELINE_Y);
+
+		g.setFont(cardAssets.getAbilityPowerFont());
+		g.drawString(String.valueOf(ability.getPower()), CardLayout.ABILITY_POWER_X,
+				CardLayout.ABILITY_POWER_BASELINE_Y);
+	}
+
+	private BufferedImage getCanvas(int width, int height) {
+		BufferedImage canvas = canvasBuffer.get();
+		if (canvas == null || canvas.getWidth() != width || canvas.getHeight() != height) {
+			canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			canvasBuffer.set(canvas);
+		}
+		return canvas;
+	}
+
+	private static void clear(Graphics2D g, BufferedImage canvas) {
+		Composite composite = g.getComposite();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		g.setComposite(composite);
+	}
+
+	private static BufferedImage copyOf(BufferedImage canvas) {
+		BufferedImage copy = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		int[] source = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+		int[] target = ((DataBufferInt) copy.getRaster().getDataBuffer()).getData();
+		System.arraycopy(source, 0, target, 0, source.length);
+		return copy;
+	}
+}
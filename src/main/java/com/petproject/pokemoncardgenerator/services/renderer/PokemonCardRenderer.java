@@ -0,0 +1,16 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.image.BufferedImage;
+
+import com.petproject.pokemoncardgenerator.model.Pokemon;
+
+/**
+ * draws a card of the pokemon over its artwork. Implementations are selected by renderer.engine
+ */
+public interface PokemonCardRenderer {
+
+	/**
+	 * @return rendered card owned by the caller, or null if the card cannot be rendered
+	 */
+	BufferedImage renderCard(Pokemon pokemon, BufferedImage pokemonImage);
+}
@@ -0,0 +1,66 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * bounded LRU cache of rasterized card parts. Cached images are shared between renders, so they must be treated
+ * as read-only. Rasterization happens outside of the lock, concurrent misses of the same key may both rasterize it.
+ */
+class RasterCache<K> {
+
+	private final int maxEntries;
+	private final LinkedHashMap<K, BufferedImage> images;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	RasterCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.images = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, BufferedImage> eldest) {
+				if (size() > RasterCache.this.maxEntries) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	BufferedImage get(K key, Function<K, BufferedImage> rasterizer) {
+		if (maxEntries <= 0) {
+			return rasterizer.apply(key);
+		}
+
+		synchronized (this) {
+			BufferedImage image = images.get(key);
+			if (image != null) {
+				hits++;
+				return image;
+			}
+			misses++;
+		}
+
+		BufferedImage image = rasterizer.apply(key);
+		synchronized (this) {
+			BufferedImage previous = images.putIfAbsent(key, image);
+			return previous != null ? previous : image;
+		}
+	}
+
+	synchronized Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", images.size());
+		stats.put("maxEntries", maxEntries);
+		stats.put("hits", hits);
+		stats.put("misses", misses);
+		stats.put("evictions", evictions);
+		return stats;
+	}
+}
@@ -0,0 +1,29 @@
+package com.petproject.pokemoncardgenerator.services.renderer.scaling;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * single-pass scaler using Graphics2D interpolation hints
+ */
+class BicubicScaler implements ImageScaler {
+
+	@Override
+	public BufferedImage scale(BufferedImage source, int width, int height, BufferedImage destination) {
+		BufferedImage target = ImageScaler.prepareDestination(destination, width, height);
+		drawScaled(source, target, width, height, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+		return target;
+	}
+
+	static void drawScaled(BufferedImage source, BufferedImage target, int width, int height, Object interpolation) {
+		Graphics2D g = target.createGraphics();
+		// Src composite replaces the previous content of a reused buffer instead of blending over it
+		g.setComposite(AlphaComposite.Src);
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		g.drawImage(source, 0, 0, width, height, null);
+		g.dispose();
+	}
+}
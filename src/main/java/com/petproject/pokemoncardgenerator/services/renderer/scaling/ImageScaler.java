@@ -0,0 +1,24 @@
+package com.petproject.pokemoncardgenerator.services.renderer.scaling;
+
+import java.awt.image.BufferedImage;
+
+public interface ImageScaler {
+
+	/**
+	 * @param source image to scale, it is only read
+	 * @param width target width
+	 * @param height target height
+	 * @param destination optional buffer to reuse. It is used when it is TYPE_INT_ARGB of exactly the target size,
+	 * otherwise a new image is allocated. All pixels of the reused buffer are overwritten.
+	 * @return scaled TYPE_INT_ARGB image, either the given destination or a new one
+	 */
+	BufferedImage scale(BufferedImage source, int width, int height, BufferedImage destination);
+
+	static BufferedImage prepareDestination(BufferedImage destination, int width, int height) {
+		if (destination != null && destination.getType() == BufferedImage.TYPE_INT_ARGB
+				&& destination.getWidth() == width && destination.getHeight() == height) {
+			return destination;
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+}
@@ -0,0 +1,49 @@
+package com.petproject.pokemoncardgenerator.services.renderer.scaling;
+
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * entry point for scaling images in the renderer. Mode is set with renderer.scaling.mode property,
+ * the other modes can still be requested explicitly.
+ */
+@Component
+public class ImageScalingEngine {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImageScalingEngine.class);
+
+	private final Map<ScalingMode, ImageScaler> scalers = new EnumMap<>(ScalingMode.class);
+	private final ScalingMode defaultMode;
+
+	public ImageScalingEngine(@Value("${renderer.scaling.mode:PROGRESSIVE_BILINEAR}") ScalingMode defaultMode) {
+		this.defaultMode = defaultMode;
+		scalers.put(ScalingMode.PROGRESSIVE_BILINEAR, new ProgressiveBilinearScaler());
+		scalers.put(ScalingMode.BICUBIC, new BicubicScaler());
+		scalers.put(ScalingMode.LANCZOS, new LanczosScaler());
+
+		LOGGER.info("Image scaling mode: {}", defaultMode);
+	}
+
+	public BufferedImage scale(BufferedImage source, int width, int height) {
+		return scale(source, width, height, null, defaultMode);
+	}
+
+	public BufferedImage scale(BufferedImage source, int width, int height, BufferedImage destination) {
+		return scale(source, width, height, destination, defaultMode);
+	}
+
+	public BufferedImage scale(BufferedImage source, int width, int height, BufferedImage destination,
+			ScalingMode mode) {
+		return scalers.get(mode).scale(source, width, height, destination);
+	}
+
+	public ScalingMode getDefaultMode() {
+		return defaultMode;
+	}
+}
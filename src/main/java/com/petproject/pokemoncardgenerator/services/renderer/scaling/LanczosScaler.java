@@ -0,0 +1,166 @@
+package com.petproject.pokemoncardgenerator.services.renderer.scaling;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * separable Lanczos-3 scaler working directly on int[] ARGB raster data.
+ * Channels are filtered premultiplied by alpha, so transparent icon edges do not get dark halos.
+ * The float working buffer is kept per thread and only grows.
+ */
+class LanczosScaler implements ImageScaler {
+
+	private static final int RADIUS = 3;
+
+	private final ThreadLocal<float[]> scratch = ThreadLocal.withInitial(() -> new float[0]);
+
+	@Override
+	public BufferedImage scale(BufferedImage source, int width, int height, BufferedImage destination) {
+		int sourceWidth = source.getWidth();
+		int sourceHeight = source.getHeight();
+		int[] in = readPixels(source);
+
+		Contributions horizontal = new Contributions(sourceWidth, width);
+		Contributions vertical = new Contributions(sourceHeight, height);
+
+		// horizontal pass: sourceHeight rows of width premultiplied pixels, 4 floats per pixel
+		float[] tmp = getScratch(width * sourceHeight * 4);
+		for (int y = 0; y < sourceHeight; y++) {
+			int rowOffset = y * sourceWidth;
+			for (int x = 0; x < width; x++) {
+				float a = 0;
+				float r = 0;
+				float g = 0;
+				float b = 0;
+				int start = horizontal.start[x];
+				int weightOffset = x * horizontal.stride;
+				for (int i = 0; i < horizontal.count[x]; i++) {
+					float w = horizontal.weights[weightOffset + i];
+					int argb = in[rowOffset + start + i];
+					float alpha = (argb >>> 24) * w;
+					a += alpha;
+					r += ((argb >> 16) & 0xFF) * alpha;
+					g += ((argb >> 8) & 0xFF) * alpha;
+					b += (argb & 0xFF) * alpha;
+				}
+				int index = (y * width + x) * 4;
+				tmp[index] = a;
+				tmp[index + 1] = r;
+				tmp[index + 2] = g;
+				tmp[index + 3] = b;
+			}
+		}
+
+		BufferedImage target = ImageScaler.prepareDestination(destination, width, height);
+		int[] out = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+
+		// vertical pass straight into the destination raster
+		for (int y = 0; y < height; y++) {
+			int start = vertical.start[y];
+			int weightOffset = y * vertical.stride;
+			for (int x = 0; x < width; x++) {
+				float a = 0;
+				float r = 0;
+				float g = 0;
+				float b = 0;
+				for (int i = 0; i < vertical.count[y]; i++) {
+					float w = vertical.weights[weightOffset + i];
+					int index = ((start + i) * width + x) * 4;
+					a += tmp[index] * w;
+					r += tmp[index + 1] * w;
+					g += tmp[index + 2] * w;
+					b += tmp[index + 3] * w;
+				}
+				out[y * width + x] = toArgb(a, r, g, b);
+			}
+		}
+
+		return target;
+	}
+
+	private static int toArgb(float a, float r, float g, float b) {
+		int alpha = clamp(a);
+		if (alpha == 0) {
+			return 0;
+		}
+		return (alpha << 24) | (clamp(r / a) << 16) | (clamp(g / a) << 8) | clamp(b / a);
+	}
+
+	private static int clamp(float value) {
+		int rounded = Math.round(value);
+		return rounded < 0 ? 0 : Math.min(rounded, 255);
+	}
+
+	private static int[] readPixels(BufferedImage source) {
+		if (source.getType() == BufferedImage.TYPE_INT_ARGB
+				&& source.getRaster().getDataBuffer() instanceof DataBufferInt dataBuffer
+				&& dataBuffer.getData().length == source.getWidth() * source.getHeight()) {
+			return dataBuffer.getData();
+		}
+		return source.getRGB(0, 0, source.getWidth(), source.getHeight(), null, 0, source.getWidth());
+	}
+
+	private float[] getScratch(int size) {
+		float[] buffer = scratch.get();
+		if (buffer.length < size) {
+			buffer = new float[size];
+			scratch.set(buffer);
+		}
+		return buffer;
+	}
+
+	private static double lanczos(double x) {
+		if (x == 0) {
+			return 1;
+		}
+		if (x <= -RADIUS || x >= RADIUS) {
+			return 0;
+		}
+		double px = Math.PI * x;
+		return RADIUS * Math.sin(px) * Math.sin(px / RADIUS) / (px * px);
+	}
+
+	/**
+	 * normalized filter weights of every destination pixel along one axis
+	 */
+	private static final class Contributions {
+
+		private final int[] start;
+		private final int[] count;
+		private final float[] weights;
+		private final int stride;
+
+		private Contributions(int sourceSize, int targetSize) {
+			double scale = (double) sourceSize / targetSize;
+			// on downscale the kernel is stretched, so every source pixel contributes
+			double filterScale = Math.max(scale, 1.0);
+			double support = RADIUS * filterScale;
+
+			stride = (int) Math.ceil(support) * 2 + 1;
+			start = new int[targetSize];
+			count = new int[targetSize];
+			weights = new float[targetSize * stride];
+
+			for (int i = 0; i < targetSize; i++) {
+				double center = (i + 0.5) * scale - 0.5;
+				int left = Math.max(0, (int) Math.ceil(center - support));
+				int right = Math.min(sourceSize - 1, (int) Math.floor(center + support));
+				int n = Math.min(right - left + 1, stride);
+
+				double sum = 0;
+				for (int j = 0; j < n; j++) {
+					double w = lanczos((left + j - center) / filterScale);
+					weights[i * stride + j] = (float) w;
+					sum += w;
+				}
+				if (sum != 0) {
+					for (int j = 0; j < n; j++) {
+						weights[i * stride + j] /= sum;
+					}
+				}
+				start[i] = left;
+				count[i] = n;
+			}
+		}
+	}
+}
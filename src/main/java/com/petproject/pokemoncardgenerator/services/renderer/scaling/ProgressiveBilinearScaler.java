@@ -0,0 +1,48 @@
+package com.petproject.pokemoncardgenerator.services.renderer.scaling;
+
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * halves the image with bilinear interpolation while it is at least twice as big as the target,
+ * then makes the last bilinear step straight to the target size.
+ * Intermediate buffers are kept per thread and reused, as the same sizes repeat for every generated image.
+ */
+class ProgressiveBilinearScaler implements ImageScaler {
+
+	private static final int MAX_SCRATCH_BUFFERS = 8;
+
+	private final ThreadLocal<Map<Long, BufferedImage>> scratchBuffers = ThreadLocal.withInitial(HashMap::new);
+
+	@Override
+	public BufferedImage scale(BufferedImage source, int width, int height, BufferedImage destination) {
+		BufferedImage current = source;
+		int currentWidth = source.getWidth();
+		int currentHeight = source.getHeight();
+
+		while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+			currentWidth /= 2;
+			currentHeight /= 2;
+
+			BufferedImage step = getScratchBuffer(currentWidth, currentHeight);
+			BicubicScaler.drawScaled(current, step, currentWidth, currentHeight,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			current = step;
+		}
+
+		BufferedImage target = ImageScaler.prepareDestination(destination, width, height);
+		BicubicScaler.drawScaled(current, target, width, height, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		return target;
+	}
+
+	private BufferedImage getScratchBuffer(int width, int height) {
+		Map<Long, BufferedImage> buffers = scratchBuffers.get();
+		if (buffers.size() > MAX_SCRATCH_BUFFERS) {
+			buffers.clear();
+		}
+		return buffers.computeIfAbsent(((long) width << 32) | height,
+				key -> new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+	}
+}
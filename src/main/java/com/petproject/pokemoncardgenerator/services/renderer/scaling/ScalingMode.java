@@ -0,0 +1,19 @@
+package com.petproject.pokemoncardgenerator.services.renderer.scaling;
+
+/**
+ * quality modes of the image scaling engine, from the fastest to the sharpest one
+ */
+public enum ScalingMode {
+	/**
+	 * repeated bilinear halving until the target size is reached, cheap and without aliasing on large downscales
+	 */
+	PROGRESSIVE_BILINEAR,
+	/**
+	 * single bicubic pass via Graphics2D interpolation hints
+	 */
+	BICUBIC,
+	/**
+	 * separable Lanczos-3 kernel over raw ARGB raster data
+	 */
+	LANCZOS
+}
@@ -0,0 +1,55 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * non-blocking counterpart of a fair semaphore: a permit is handed out as a future, which completes
+ * once the permit is available. Waiters are served in arrival order, cancelled waiters are skipped.
+ */
+class AsyncPermits {
+
+	private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+	private int available;
+
+	AsyncPermits(int permits) {
+		this.available = permits;
+	}
+
+	synchronized CompletableFuture<Void> acquire() {
+		if (available > 0) {
+			available--;
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> waiter = new CompletableFuture<>();
+		waiters.addLast(waiter);
+		return waiter;
+	}
+
+	void release() {
+		CompletableFuture<Void> next;
+		synchronized (this) {
+			do {
+				next = waiters.pollFirst();
+			} while (next != null && next.isDone());
+
+			if (next == null) {
+				available++;
+				return;
+			}
+		}
+		// the waiter could have been cancelled in the meantime, then the permit goes to the next one
+		if (!next.complete(null)) {
+			release();
+		}
+	}
+
+	synchronized int getAvailable() {
+		return available;
+	}
+
+	synchronized int getWaiting() {
+		return waiters.size();
+	}
+}
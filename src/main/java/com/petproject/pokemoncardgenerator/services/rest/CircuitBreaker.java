@@ -0,0 +1,79 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+/**
+ * consecutive failures circuit breaker of one model endpoint.
+ * After failureThreshold failed calls in a row the circuit opens and calls are rejected for openMillis.
+ * Then a single trial call is let through: its success closes the circuit, its failure opens it again.
+ */
+final class CircuitBreaker {
+
+	enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureThreshold;
+	private final long openMillis;
+
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+	private boolean isTrialInFlight;
+
+	CircuitBreaker(int failureThreshold, long openMillis) {
+		this.failureThreshold = Math.max(1, failureThreshold);
+		this.openMillis = openMillis;
+	}
+
+	/**
+	 * @return whether a new call may start; in the half-open state only the trial call is allowed
+	 */
+	synchronized boolean tryAcquire(long nowMillis) {
+		if (state == State.OPEN) {
+			if (nowMillis - openedAt < openMillis) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			isTrialInFlight = false;
+		}
+		if (state == State.HALF_OPEN) {
+			if (isTrialInFlight) {
+				return false;
+			}
+			isTrialInFlight = true;
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether calls are being rejected, a call in progress should not retry then
+	 */
+	synchronized boolean isOpen(long nowMillis) {
+		return state == State.OPEN && nowMillis - openedAt < openMillis;
+	}
+
+	synchronized void onSuccess() {
+		state = State.CLOSED;
+		consecutiveFailures = 0;
+		isTrialInFlight = false;
+	}
+
+	synchronized void onFailure(long nowMillis) {
+		isTrialInFlight = false;
+		consecutiveFailures++;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+			state = State.OPEN;
+			openedAt = nowMillis;
+		}
+	}
+
+	/**
+	 * the call ended without telling anything about the endpoint, e.g. it was cancelled
+	 */
+	synchronized void onIgnored() {
+		isTrialInFlight = false;
+	}
+
+	synchronized State getState() {
+		return state;
+	}
+}
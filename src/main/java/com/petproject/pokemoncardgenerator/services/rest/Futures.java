@@ -0,0 +1,39 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * helpers for bridging blocking and future-based rest calls
+ */
+final class Futures {
+
+	private Futures() {
+	}
+
+	/**
+	 * waits for the future and rethrows the original runtime exception instead of the CompletionException
+	 */
+	static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * runs the blocking call on the current thread and wraps its outcome into a completed future
+	 */
+	static <T> CompletableFuture<T> fromBlocking(Supplier<T> call) {
+		try {
+			return CompletableFuture.completedFuture(call.get());
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+}
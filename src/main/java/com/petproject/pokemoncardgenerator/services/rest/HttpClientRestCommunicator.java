@@ -0,0 +1,172 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * Non-blocking alternative of {@link RestCommunicator} built on the JDK HttpClient.
+ * Connections are kept alive and reused, HTTP/2 is negotiated when the endpoint supports it,
+ * and no thread is held while waiting for the model. Amount of requests in flight is bounded,
+ * the requests over the limit wait in a queue without blocking their callers.
+ */
+@Service
+public class HttpClientRestCommunicator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientRestCommunicator.class);
+
+	// JDK HttpClient reads pool settings from system properties once, when the first client is created in the JVM,
+	// so they can only be given at launch, e.g. -Djdk.httpclient.keepalive.timeout=120
+	private static final String CONNECTION_POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+	private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+	@Value("${huggingface.api.token}")
+	private String apiToken;
+
+	@Value("${model.image.url}")
+	private String imageModelUrl;
+
+	@Value("${model.text.url}")
+	private String textModelUrl;
+
+	private final HttpClient httpClient;
+	private final AsyncPermits inFlightPermits;
+	private final Duration requestTimeout;
+
+	public HttpClientRestCommunicator(@Value("${huggingface.http.max-connections:32}") int maxConnections,
+			@Value("${huggingface.http.connect-timeout-ms:10000}") long connectTimeoutMs,
+			@Value("${huggingface.http.request-timeout-ms:300000}") long requestTimeoutMs) {
+		// defaults of the JDK: unlimited idle connections, kept for 1200 seconds
+		LOGGER.info("HTTP client: {} requests in flight, idle connection pool size {}, keep-alive {} s",
+				maxConnections, System.getProperty(CONNECTION_POOL_SIZE_PROPERTY, "0 (unlimited)"),
+				System.getProperty(KEEP_ALIVE_PROPERTY, "1200"));
+
+		this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(connectTimeoutMs)).build();
+		this.inFlightPermits = new AsyncPermits(maxConnections);
+		this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+	}
+
+	public ResponseEntity<String> executeTextToTextRestCall(String prompt) {
+		return Futures.await(executeTextToTextRestCallAsync(prompt));
+	}
+
+	public ResponseEntity<byte[]> executeTextToImageRestCall(String prompt) {
+		return Futures.await(executeTextToImageRestCallAsync(prompt));
+	}
+
+	public CompletableFuture<ResponseEntity<String>> executeTextToTextRestCallAsync(String prompt) {
+		return sendText(RestCommunicator.textRequestBody(prompt));
+	}
+
+	/**
+	 * one inference request for several prompts, the body of the response is an array of answers in prompt order
+	 */
+	public CompletableFuture<ResponseEntity<String>> executeBatchTextToTextRestCallAsync(List<String> prompts) {
+		return sendText(RestCommunicator.batchTextRequestBody(prompts));
+	}
+
+	private CompletableFuture<ResponseEntity<String>> sendText(String body) {
+		HttpRequest request = buildRequest(textModelUrl, MediaType.APPLICATION_JSON_VALUE, body);
+		return send(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+			if (!isSuccessful(response)) {
+				LOGGER.error("REST Client Exception: {}", response.body());
+				throw classify(response, response.body());
+			}
+			return toResponseEntity(response);
+		});
+	}
+
+	public CompletableFuture<ResponseEntity<byte[]>> executeTextToImageRestCallAsync(String prompt) {
+		return executeTextToImageRestCallAsync(imageModelUrl, prompt);
+	}
+
+	/**
+	 * @param url endpoint of an image model taking the same request as the configured one
+	 */
+	public CompletableFuture<ResponseEntity<byte[]>> executeTextToImageRestCallAsync(String url, String prompt) {
+		HttpRequest request = buildRequest(url, MediaType.IMAGE_PNG_VALUE,
+				RestCommunicator.imageRequestBody(prompt));
+		return send(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+			if (!isSuccessful(response)) {
+				LOGGER.error("REST Client Exception: {}", new String(response.body()));
+				throw classify(response, new String(response.body()));
+			}
+			return toResponseEntity(response);
+		});
+	}
+
+	private HttpRequest buildRequest(String url, String accept, String body) {
+		return HttpRequest.newBuilder(URI.create(url)).timeout(requestTimeout)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + apiToken)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).header(HttpHeaders.ACCEPT, accept)
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+
+	/**
+	 * permit is held exactly for the time of the exchange. Cancelling the returned future either drops
+	 * the queued request or aborts the exchange in progress.
+	 */
+	private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+		CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+
+		inFlightPermits.acquire().thenRun(() -> {
+			if (result.isDone()) {
+				inFlightPermits.release();
+				return;
+			}
+
+			CompletableFuture<HttpResponse<T>> exchange;
+			try {
+				exchange = httpClient.sendAsync(request, handler);
+			} catch (RuntimeException e) {
+				// rejected before the exchange started, e.g. an invalid request or a closed client
+				inFlightPermits.release();
+				result.completeExceptionally(e);
+				return;
+			}
+			exchange.whenComplete((response, exception) -> {
+				inFlightPermits.release();
+				if (exception != null) {
+					result.completeExceptionally(exception);
+				} else {
+					result.complete(response);
+				}
+			});
+			result.whenComplete((response, exception) -> {
+				if (result.isCancelled()) {
+					exchange.cancel(true);
+				}
+			});
+		});
+
+		return result;
+	}
+
+	private static boolean isSuccessful(HttpResponse<?> response) {
+		return response.statusCode() >= 200 && response.statusCode() < 300;
+	}
+
+	private static RuntimeException classify(HttpResponse<?> response, String body) {
+		return ModelResponses.classify(response.statusCode(), body,
+				response.headers().firstValue(HttpHeaders.RETRY_AFTER).orElse(null));
+	}
+
+	private static <T> ResponseEntity<T> toResponseEntity(HttpResponse<T> response) {
+		HttpHeaders headers = new HttpHeaders();
+		response.headers().map().forEach(headers::addAll);
+		return ResponseEntity.status(response.statusCode()).headers(headers).body(response.body());
+	}
+}
@@ -0,0 +1,349 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+import com.petproject.pokemoncardgenerator.services.threads.ThreadFactoryProvider;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * hedging of image model calls. When the first attempt has not finished by the configured percentile of recent
+ * image call latencies (but not sooner than the minimal delay), a second attempt is started, on the next endpoint of
+ * model.image.hedge-urls or on the same one if none are configured. The first successful attempt wins and the other
+ * one is cancelled. When the first attempt fails before the delay, the second one starts right away on an alternate
+ * endpoint; without alternates the failure is the result of the call, retries on the same endpoint are up to
+ * {@link ModelCallResilience}. Otherwise the call fails when both attempts fail.
+ * Every alternate endpoint has its own breaker and upstream lane (image-alt-1, image-alt-2, ...), configured by
+ * ai.resilience.image.* and ai.upstream.image.* unless set for the alternate itself.
+ * A cancelled first attempt still counts into the latency window with its time so far, otherwise the window would
+ * lose exactly the slow calls and the hedge delay would keep shrinking. A cancelled hedge does not count, its time
+ * covers only the tail of the call after the delay.
+ */
+@Component
+class ImageCallHedger implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImageCallHedger.class);
+	private static final int WINDOW_SIZE = 256;
+
+	private final boolean isEnabled;
+	private final double percentile;
+	private final long minDelayMillis;
+	private final long initialDelayMillis;
+	private final int minSamples;
+	private final Target primary;
+	private final List<Target> alternates = new ArrayList<>();
+	private final AtomicInteger nextAlternate = new AtomicInteger();
+	// blocking transport attempts, their number is bounded by the limiter
+	private final ExecutorService blockingExecutor;
+
+	// latencies of recent attempts in milliseconds, guarded by itself
+	private final long[] window = new long[WINDOW_SIZE];
+	private int windowNext;
+	private int windowCount;
+
+	private final AtomicLong calls = new AtomicLong();
+	private final AtomicLong hedged = new AtomicLong();
+	private final AtomicLong hedgeWins = new AtomicLong();
+	private final AtomicLong primaryWins = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	ImageCallHedger(ThreadFactoryProvider threadFactoryProvider,
+			@Value("${model.image.hedge.enabled:false}") boolean isEnabled,
+			@Value("${model.image.hedge.percentile:95}") double percentile,
+			@Value("${model.image.hedge.min-delay-ms:2000}") long minDelayMillis,
+			@Value("${model.image.hedge.initial-delay-ms:20000}") long initialDelayMillis,
+			@Value("${model.image.hedge.min-samples:20}") int minSamples,
+			@Value("${model.image.url:}") String imageModelUrl,
+			@Value("${model.image.hedge-urls:}") String hedgeUrls) {
+		this.isEnabled = isEnabled;
+		this.percentile = Math.min(100, Math.max(0, percentile));
+		this.minDelayMillis = Math.max(0, minDelayMillis);
+		this.initialDelayMillis = Math.max(this.minDelayMillis, initialDelayMillis);
+		this.minSamples = Math.max(1, Math.min(WINDOW_SIZE, minSamples));
+		this.primary = new Target(ModelCallResilience.IMAGE_ENDPOINT, imageModelUrl);
+		for (String url : hedgeUrls.split(",")) {
+			if (!url.isBlank()) {
+				alternates.add(new Target(ModelCallResilience.IMAGE_ALTERNATE_PREFIX + (alternates.size() + 1), url.trim()));
+			}
+		}
+		this.blockingExecutor = Executors.newCachedThreadPool(threadFactoryProvider.newThreadFactory("image-hedge-"));
+		if (isEnabled) {
+			LOGGER.info("Image calls are hedged at p{} of recent latencies (at least {} ms), {} alternate endpoint(s)",
+					this.percentile, this.minDelayMillis, alternates.size());
+		}
+	}
+
+	boolean isEnabled() {
+		return isEnabled;
+	}
+
+	/**
+	 * runs the blocking attempts on the hedger's own threads. A losing attempt cannot be aborted by the blocking
+	 * transport, its answer is dropped when it arrives.
+	 */
+	<T> CompletableFuture<T> executeBlocking(Attempt<T> attempt) {
+		return executeAsync((endpoint, url) -> CompletableFuture.supplyAsync(() -> attempt.call(endpoint, url),
+				blockingExecutor));
+	}
+
+	/**
+	 * Cancelling the returned future cancels both attempts.
+	 */
+	<T> CompletableFuture<T> executeAsync(Attempt<CompletableFuture<T>> attempt) {
+		calls.incrementAndGet();
+		Race<T> race = new Race<>(attempt);
+		race.start(primary, false);
+
+		long delay = hedgeDelayMillis();
+		CompletableFuture.runAsync(() -> {
+			if (race.startHedge()) {
+				LOGGER.info("Image call has not finished in {} ms, hedged", delay);
+			}
+		}, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+
+		race.result.whenComplete((value, error) -> {
+			if (race.result.isCancelled()) {
+				race.cancelRunning();
+			}
+		});
+		return race.result;
+	}
+
+	private long hedgeDelayMillis() {
+		synchronized (window) {
+			if (windowCount < minSamples) {
+				return initialDelayMillis;
+			}
+			return Math.max(minDelayMillis, percentileOf(window, windowCount, percentile));
+		}
+	}
+
+	private Target nextTarget() {
+		if (alternates.isEmpty()) {
+			return primary;
+		}
+		return alternates.get(Math.floorMod(nextAlternate.getAndIncrement(), alternates.size()));
+	}
+
+	private void recordLatency(long millis) {
+		synchronized (window) {
+			window[windowNext] = millis;
+			windowNext = (windowNext + 1) % WINDOW_SIZE;
+			windowCount = Math.min(WINDOW_SIZE, windowCount + 1);
+		}
+	}
+
+	private static long percentileOf(long[] values, int count, double percentile) {
+		long[] sorted = Arrays.copyOf(values, count);
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile / 100 * count) - 1;
+		return sorted[Math.max(0, Math.min(count - 1, index))];
+	}
+
+	@PreDestroy
+	void shutdown() {
+		blockingExecutor.shutdownNow();
+	}
+
+	@Override
+	public String getStatsName() {
+		return "imageHedging";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		long callCount = calls.get();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", isEnabled);
+		stats.put("calls", callCount);
+		stats.put("hedged", hedged.get());
+		stats.put("hedgeRate", callCount == 0 ? 0 : Math.round(hedged.get() * 1000.0 / callCount) / 1000.0);
+		stats.put("hedgeWins", hedgeWins.get());
+		stats.put("primaryWins", primaryWins.get());
+		stats.put("failed", failed.get());
+		stats.put("hedgeDelayMillis", hedgeDelayMillis());
+		synchronized (window) {
+			if (windowCount > 0) {
+				stats.put("p50Millis", percentileOf(window, windowCount, 50));
+				stats.put("p95Millis", percentileOf(window, windowCount, 95));
+				stats.put("p99Millis", percentileOf(window, windowCount, 99));
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * one attempt of the call against the given endpoint, the endpoint name selects the breaker and the upstream lane
+	 */
+	@FunctionalInterface
+	interface Attempt<T> {
+
+		T call(String endpoint, String url);
+	}
+
+	private static final class Target {
+
+		private final String endpoint;
+		private final String url;
+
+		private Target(String endpoint, String url) {
+			this.endpoint = endpoint;
+			this.url = url;
+		}
+	}
+
+	/**
+	 * attempts of one call, the first successful one completes the result
+	 */
+	private final class Race<T> {
+
+		private final Attempt<CompletableFuture<T>> attempt;
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+		private final List<Running<T>> running = new ArrayList<>();
+		private int pending;
+		private boolean isHedgeStarted;
+		private Throwable firstError;
+
+		private Race(Attempt<CompletableFuture<T>> attempt) {
+			this.attempt = attempt;
+		}
+
+		/**
+		 * @return false if the call is already finished or hedged
+		 */
+		private boolean startHedge() {
+			if (!start(nextTarget(), true)) {
+				return false;
+			}
+			hedged.incrementAndGet();
+			return true;
+		}
+
+		/**
+		 * @return false if the call is already finished, or hedged when the attempt is a hedge
+		 */
+		private boolean start(Target target, boolean isHedge) {
+			Running<T> started;
+			synchronized (this) {
+				if (result.isDone() || isHedge && isHedgeStarted) {
+					return false;
+				}
+				isHedgeStarted |= isHedge;
+				started = new Running<>(isHedge, System.nanoTime());
+				running.add(started);
+				pending++;
+			}
+
+			CompletableFuture<T> future;
+			try {
+				future = attempt.call(target.endpoint, target.url);
+			} catch (RuntimeException e) {
+				future = CompletableFuture.failedFuture(e);
+			}
+			started.future = future;
+			future.whenComplete((value, error) -> finished(started, value, error));
+			if (result.isDone()) {
+				future.cancel(true);
+			}
+			return true;
+		}
+
+		private void finished(Running<T> finished, T value, Throwable error) {
+			if (error == null) {
+				if (!result.complete(value)) {
+					return;
+				}
+				recordLatency(finished.elapsedMillis());
+				boolean wasHedged;
+				synchronized (this) {
+					wasHedged = running.size() > 1;
+				}
+				if (finished.isHedge) {
+					hedgeWins.incrementAndGet();
+				} else if (wasHedged) {
+					primaryWins.incrementAndGet();
+				}
+				cancelRunning();
+				return;
+			}
+
+			Throwable failure;
+			boolean isHedgeNow;
+			synchronized (this) {
+				pending--;
+				if (firstError == null) {
+					firstError = error instanceof CompletionException && error.getCause() != null ?
+							error.getCause() : error;
+				}
+				// the other attempt, if running, may still succeed
+				if (pending > 0 || result.isDone()) {
+					return;
+				}
+				// an early failure of the first attempt does not wait for the delay when there is another endpoint
+				isHedgeNow = !isHedgeStarted && !alternates.isEmpty();
+				failure = firstError;
+			}
+			if (isHedgeNow) {
+				if (startHedge()) {
+					LOGGER.info("Image call failed before the hedge delay, hedged at once: {}", failure.toString());
+					return;
+				}
+				// the delayed hedge has just been started
+				synchronized (this) {
+					if (pending > 0 || result.isDone()) {
+						return;
+					}
+				}
+			}
+			if (result.completeExceptionally(failure)) {
+				failed.incrementAndGet();
+			}
+		}
+
+		private void cancelRunning() {
+			List<Running<T>> losers;
+			synchronized (this) {
+				losers = new ArrayList<>(running);
+			}
+			for (Running<T> loser : losers) {
+				CompletableFuture<T> future = loser.future;
+				if (future != null && !future.isDone() && future.cancel(true) && !loser.isHedge) {
+					recordLatency(loser.elapsedMillis());
+				}
+			}
+		}
+	}
+
+	private static final class Running<T> {
+
+		private final boolean isHedge;
+		private final long startNanos;
+		private volatile CompletableFuture<T> future;
+
+		private Running(boolean isHedge, long startNanos) {
+			this.isHedge = isHedge;
+			this.startNanos = startNanos;
+		}
+
+		private long elapsedMillis() {
+			return (System.nanoTime() - startNanos) / 1_000_000;
+		}
+	}
+}
@@ -0,0 +1,284 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.petproject.pokemoncardgenerator.services.rest.error.CircuitOpenException;
+import com.petproject.pokemoncardgenerator.services.rest.error.ModelCallException;
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+
+/**
+ * retries and circuit breaking of model calls, one policy and breaker per endpoint (ai.resilience.&lt;endpoint&gt;.*).
+ * Only loading and rate-limited responses are retried. The wait honors the estimated_time or Retry-After hint of the
+ * response and falls back to jittered exponential backoff; a retry, which would not fit into the deadline of the
+ * call, is not made. Calls ending with a model error or a transport failure count towards the breaker, while it is
+ * open calls fail right away with {@link CircuitOpenException} and the callers proceed with their fallbacks.
+ * The permit of {@link UpstreamCallLimiter} is not held during the waits, it is acquired per attempt.
+ */
+@Component
+class ModelCallResilience implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ModelCallResilience.class);
+
+	static final String TEXT_ENDPOINT = "text";
+	static final String IMAGE_ENDPOINT = "image";
+	// alternate image endpoints of the hedger: image-alt-1, image-alt-2, ...
+	static final String IMAGE_ALTERNATE_PREFIX = IMAGE_ENDPOINT + "-alt-";
+
+	private final Environment environment;
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	ModelCallResilience(Environment environment) {
+		this.environment = environment;
+		endpoint(TEXT_ENDPOINT);
+		endpoint(IMAGE_ENDPOINT);
+	}
+
+	/**
+	 * runs the blocking call on the current thread, waits between attempts block the thread as well
+	 */
+	<T> T executeBlocking(String endpointName, Supplier<T> call) {
+		Endpoint endpoint = endpoint(endpointName);
+		long deadline = acquire(endpoint);
+		for (int attempt = 1; ; attempt++) {
+			try {
+				T result = call.get();
+				endpoint.onSuccess();
+				return result;
+			} catch (Error e) {
+				// the call is not finished normally, a half-open trial must not stay in flight
+				endpoint.breaker.onIgnored();
+				throw e;
+			} catch (RuntimeException e) {
+				long delay = retryDelay(endpoint, attempt, e, deadline);
+				if (delay < 0) {
+					endpoint.onFailure(e);
+					throw e;
+				}
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					endpoint.breaker.onIgnored();
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * runs the asynchronous call, the next attempt is scheduled without holding any thread.
+	 * Cancelling the returned future cancels the attempt in progress and any further attempts.
+	 */
+	<T> CompletableFuture<T> executeAsync(String endpointName, Supplier<CompletableFuture<T>> call) {
+		Endpoint endpoint = endpoint(endpointName);
+		long deadline;
+		try {
+			deadline = acquire(endpoint);
+		} catch (CircuitOpenException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		AtomicReference<Future<?>> current = new AtomicReference<>();
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled()) {
+				endpoint.breaker.onIgnored();
+				Future<?> attempt = current.get();
+				if (attempt != null) {
+					attempt.cancel(true);
+				}
+			}
+		});
+		attemptAsync(endpoint, call, 1, deadline, result, current);
+		return result;
+	}
+
+	private <T> void attemptAsync(Endpoint endpoint, Supplier<CompletableFuture<T>> call, int attempt, long deadline,
+			CompletableFuture<T> result, AtomicReference<Future<?>> current) {
+		if (result.isDone()) {
+			return;
+		}
+		CompletableFuture<T> upstream;
+		try {
+			upstream = call.get();
+		} catch (RuntimeException e) {
+			upstream = CompletableFuture.failedFuture(e);
+		}
+		current.set(upstream);
+		if (result.isCancelled()) {
+			upstream.cancel(true);
+			return;
+		}
+
+		upstream.whenComplete((value, error) -> {
+			if (result.isDone()) {
+				return;
+			}
+			if (error == null) {
+				endpoint.onSuccess();
+				result.complete(value);
+				return;
+			}
+			Throwable cause = unwrap(error);
+			long delay = retryDelay(endpoint, attempt, cause, deadline);
+			if (delay < 0) {
+				endpoint.onFailure(cause);
+				result.completeExceptionally(cause);
+				return;
+			}
+			current.set(CompletableFuture.runAsync(
+					() -> attemptAsync(endpoint, call, attempt + 1, deadline, result, current),
+					CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)));
+		});
+	}
+
+	/**
+	 * @return deadline of the call
+	 */
+	private long acquire(Endpoint endpoint) {
+		long now = System.currentTimeMillis();
+		if (!endpoint.breaker.tryAcquire(now)) {
+			endpoint.rejected.incrementAndGet();
+			throw new CircuitOpenException("Circuit of " + endpoint.name + " model is open, the call is skipped");
+		}
+		endpoint.calls.incrementAndGet();
+		return now + endpoint.policy.getDeadlineMillis();
+	}
+
+	/**
+	 * @return delay before the next attempt, or -1 if the call should fail with the given error
+	 */
+	private long retryDelay(Endpoint endpoint, int attempt, Throwable error, long deadline) {
+		if (!(error instanceof ModelCallException modelError) || !modelError.isRetryable()
+				|| attempt >= endpoint.policy.getMaxAttempts()) {
+			return -1;
+		}
+		long now = System.currentTimeMillis();
+		if (endpoint.breaker.isOpen(now)) {
+			return -1;
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long delay;
+		if (modelError.getRetryAfterMillis() >= 0) {
+			// spread the callers waiting for the same hint, so that they do not come back at once
+			long spread = Math.min(endpoint.policy.getMaxBackoffMillis(), modelError.getRetryAfterMillis() / 5) + 1;
+			delay = modelError.getRetryAfterMillis() + random.nextLong(spread);
+		} else {
+			delay = endpoint.policy.backoffMillis(attempt, random.nextLong());
+		}
+		if (now + delay >= deadline) {
+			LOGGER.warn("Call to {} model failed with {}, a retry in {} ms would pass the deadline",
+					endpoint.name, modelError.getStatus(), delay);
+			return -1;
+		}
+
+		endpoint.retries.incrementAndGet();
+		LOGGER.warn("Call to {} model failed with {}, attempt {} in {} ms", endpoint.name, modelError.getStatus(),
+				attempt + 1, delay);
+		return delay;
+	}
+
+	private Endpoint endpoint(String name) {
+		return endpoints.computeIfAbsent(name, key -> {
+			ResiliencePolicy policy = ResiliencePolicy.of(environment, key);
+			LOGGER.info("Calls to {} model use {}", key, policy);
+			return new Endpoint(key, policy);
+		});
+	}
+
+	/**
+	 * endpoint whose settings apply where the given one has none: the image endpoint for its alternates, else null
+	 */
+	static String parentEndpoint(String endpoint) {
+		return endpoint.startsWith(IMAGE_ALTERNATE_PREFIX) ? IMAGE_ENDPOINT : null;
+	}
+
+	private static Throwable unwrap(Throwable error) {
+		while ((error instanceof CompletionException || error instanceof ExecutionException)
+				&& error.getCause() != null) {
+			error = error.getCause();
+		}
+		return error;
+	}
+
+	/**
+	 * whether the error says something about the health of the endpoint, rather than about the caller: server errors,
+	 * loading and rate-limited responses and transport failures. Other 4xx responses are caused by the request.
+	 */
+	private static boolean isEndpointFailure(Throwable error) {
+		if (error instanceof ModelCallException modelError) {
+			return modelError.isRetryable() || modelError.getStatus() >= 500 || modelError.getStatus() == 429;
+		}
+		return error instanceof ResourceAccessException || error instanceof IOException;
+	}
+
+	@Override
+	public String getStatsName() {
+		return "modelResilience";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		endpoints.forEach((name, endpoint) -> {
+			Map<String, Object> endpointStats = new LinkedHashMap<>();
+			endpointStats.put("circuit", endpoint.breaker.getState());
+			endpointStats.put("calls", endpoint.calls.get());
+			endpointStats.put("retries", endpoint.retries.get());
+			endpointStats.put("failed", endpoint.failed.get());
+			endpointStats.put("rejected", endpoint.rejected.get());
+			stats.put(name, endpointStats);
+		});
+		return stats;
+	}
+
+	private static final class Endpoint {
+
+		private final String name;
+		private final ResiliencePolicy policy;
+		private final CircuitBreaker breaker;
+
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong retries = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+
+		private Endpoint(String name, ResiliencePolicy policy) {
+			this.name = name;
+			this.policy = policy;
+			this.breaker = new CircuitBreaker(policy.getFailureThreshold(), policy.getOpenMillis());
+		}
+
+		private void onSuccess() {
+			breaker.onSuccess();
+		}
+
+		private void onFailure(Throwable error) {
+			failed.incrementAndGet();
+			if (isEndpointFailure(unwrap(error))) {
+				breaker.onFailure(System.currentTimeMillis());
+			} else {
+				breaker.onIgnored();
+			}
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.petproject.pokemoncardgenerator.services.rest.error.ModelCallException;
+import com.petproject.pokemoncardgenerator.services.rest.error.ModelIsLoadingException;
+import com.petproject.pokemoncardgenerator.services.rest.error.ModelRateLimitedException;
+
+/**
+ * classifies unsuccessful model responses, shared by both transports:
+ * 503 is a model still loading (Hugging Face reports {"error": "...", "estimated_time": 20.5}),
+ * 429 is a rate limit (with an optional Retry-After header), anything else is fatal
+ */
+final class ModelResponses {
+
+	private ModelResponses() {
+	}
+
+	static ModelCallException classify(int status, String body, String retryAfter) {
+		String message = "Error from model: " + status;
+		if (status == 503) {
+			return new ModelIsLoadingException(message, estimatedTimeMillis(body));
+		}
+		if (status == 429) {
+			return new ModelRateLimitedException(message, retryAfterMillis(retryAfter));
+		}
+		return new ModelCallException(message, status);
+	}
+
+	private static long estimatedTimeMillis(String body) {
+		try {
+			JSONObject json = body == null ? null : JSON.parseObject(body);
+			if (json != null && json.get("estimated_time") instanceof Number estimatedTime) {
+				return (long) (estimatedTime.doubleValue() * 1000);
+			}
+		} catch (RuntimeException e) {
+			// not a JSON body, no hint then
+		}
+		return -1;
+	}
+
+	/**
+	 * Retry-After is either delay in seconds or HTTP date
+	 */
+	private static long retryAfterMillis(String retryAfter) {
+		if (retryAfter == null || retryAfter.isBlank()) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(retryAfter.trim()) * 1000;
+		} catch (NumberFormatException e) {
+			// fall through to the date format
+		}
+		try {
+			ZonedDateTime time = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+			return Math.max(0, Duration.between(ZonedDateTime.now(time.getZone()), time).toMillis());
+		} catch (DateTimeParseException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * retry and circuit breaker settings of one model endpoint, read from ai.resilience.&lt;endpoint&gt;.*,
+ * an alternate image endpoint falls back to ai.resilience.image.*
+ */
+final class ResiliencePolicy {
+
+	private static final String PREFIX = "ai.resilience.";
+
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+	// total time of a call including all attempts and waits, a retry that would not fit is not made
+	private final long deadlineMillis;
+	private final int failureThreshold;
+	private final long openMillis;
+
+	private ResiliencePolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long deadlineMillis,
+			int failureThreshold, long openMillis) {
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+		this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+		this.deadlineMillis = deadlineMillis;
+		this.failureThreshold = failureThreshold;
+		this.openMillis = openMillis;
+	}
+
+	static ResiliencePolicy of(Environment environment, String endpoint) {
+		return new ResiliencePolicy(property(environment, endpoint, "max-attempts", Integer.class, 5),
+				property(environment, endpoint, "initial-backoff-ms", Long.class, 1000L),
+				property(environment, endpoint, "max-backoff-ms", Long.class, 30000L),
+				property(environment, endpoint, "deadline-ms", Long.class, 120000L),
+				property(environment, endpoint, "failure-threshold", Integer.class, 5),
+				property(environment, endpoint, "open-ms", Long.class, 30000L));
+	}
+
+	private static <T> T property(Environment environment, String endpoint, String key, Class<T> type,
+			T defaultValue) {
+		T value = environment.getProperty(PREFIX + endpoint + "." + key, type);
+		String parent = ModelCallResilience.parentEndpoint(endpoint);
+		if (value == null && parent != null) {
+			value = environment.getProperty(PREFIX + parent + "." + key, type);
+		}
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * exponential backoff with equal jitter: half of the step is fixed, the other half is random
+	 */
+	long backoffMillis(int attempt, long random) {
+		long step = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+		return step / 2 + Math.floorMod(random, step / 2 + 1);
+	}
+
+	int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	long getMaxBackoffMillis() {
+		return maxBackoffMillis;
+	}
+
+	long getDeadlineMillis() {
+		return deadlineMillis;
+	}
+
+	int getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	long getOpenMillis() {
+		return openMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "ResiliencePolicy{" + "maxAttempts=" + maxAttempts + ", initialBackoffMillis=" + initialBackoffMillis
+				+ ", maxBackoffMillis=" + maxBackoffMillis + ", deadlineMillis=" + deadlineMillis
+				+ ", failureThreshold=" + failureThreshold + ", openMillis=" + openMillis + '}';
+	}
+}
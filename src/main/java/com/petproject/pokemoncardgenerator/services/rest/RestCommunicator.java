@@ -10,15 +10,15 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-import com.petproject.pokemoncardgenerator.services.rest.error.ModelIsLoadingException;
+import com.alibaba.fastjson.JSON;
 
 /**
  * Service for making API requests to Hugging Face Generative Models via API Inferences
@@ -41,22 +41,28 @@ public class RestCommunicator {
 	private final RestTemplate restTemplate;
 
 	public RestCommunicator(RestTemplateBuilder restTemplateBuilder) {
-		this.restTemplate = restTemplateBuilder.build();
+		// Ensure image (byte[]) responses are handled
+		this.restTemplate = restTemplateBuilder.additionalMessageConverters(new ByteArrayHttpMessageConverter()).build();
 	}
 
-	@Retryable(retryFor= ModelIsLoadingException.class, maxAttempts = 4, backoff = @Backoff(delay = 20000, maxDelay = 160000, multiplier = 2))
 	public ResponseEntity<String> executeTextToTextRestCall(String prompt) {
+		return exchangeText(textRequestBody(prompt));
+	}
+
+	/**
+	 * one inference request for several prompts, the body of the response is an array of answers in prompt order
+	 */
+	public ResponseEntity<String> executeBatchTextToTextRestCall(List<String> prompts) {
+		return exchangeText(batchTextRequestBody(prompts));
+	}
+
+	private ResponseEntity<String> exchangeText(String body) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.setBearerAuth(apiToken);
 		headers.setContentType(MediaType.APPLICATION_JSON);
 		headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
 
-		String requestBody = String.format(
-			"{\"inputs\":\"%s\", \"parameters\":{\"max_new_tokens\":%s}}",
-			prompt, MAX_AMOUNT_TOKENS
-		);
-
-		HttpEntity<String> httpEntity = new HttpEntity<>(requestBody, headers);
+		HttpEntity<String> httpEntity = new HttpEntity<>(body, headers);
 
 		try {
 			ResponseEntity<String> response = restTemplate.exchange(
@@ -70,45 +76,64 @@ public class RestCommunicator {
 
 		} catch (RestClientResponseException exception) {
 			LOGGER.error("REST Client Exception: {}", exception.getResponseBodyAsString());
-			throw new RuntimeException("Error from model: " + exception.getRawStatusCode());
+			throw classify(exception);
 		}
 	}
 
-	@Recover
-	public ResponseEntity<String> executeTextToTextRestCallRecover(ModelIsLoadingException exception, String prompt, String model) {
-		LOGGER.error("An error occurred during rest request for the text generation. Proceed without requested text.");
-		return null;
+	public ResponseEntity<byte[]> executeTextToImageRestCall(String prompt) {
+		return executeTextToImageRestCall(imageModelUrl, prompt);
 	}
 
-	@Retryable(retryFor= ModelIsLoadingException.class, maxAttempts = 4, backoff = @Backoff(delay = 500, maxDelay = 160000, multiplier = 2))
-	public ResponseEntity<byte[]> executeTextToImageRestCall(String prompt) {
+	/**
+	 * @param url endpoint of an image model taking the same request as the configured one, e.g. an alternate
+	 * endpoint of a hedged call
+	 */
+	public ResponseEntity<byte[]> executeTextToImageRestCall(String url, String prompt) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(apiToken);
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(Collections.singletonList(MediaType.IMAGE_PNG)); // or IMAGE_JPEG, etc.
 
-        String requestBody = String.format("{\"inputs\":\"%s\"}", prompt);
-        HttpEntity<String> httpEntity = new HttpEntity<>(requestBody, headers);
-
-        // Ensure image (byte[]) responses are handled
-        restTemplate.getMessageConverters().add(new ByteArrayHttpMessageConverter());
+        HttpEntity<String> httpEntity = new HttpEntity<>(imageRequestBody(prompt), headers);
 
         try {
             return restTemplate.exchange(
-                imageModelUrl,
+                url,
                 HttpMethod.POST,
                 httpEntity,
                 byte[].class
             );
         } catch (RestClientResponseException exception) {
             System.err.println("REST Client Exception: " + exception.getResponseBodyAsString());
-            throw new RuntimeException("Image generation error: " + exception.getRawStatusCode());
+            throw classify(exception);
         }
     }
 
-	@Recover
-	public ResponseEntity<byte[]> executeTextToImageRestCall(ModelIsLoadingException exception, String prompt, String model) {
-		LOGGER.error("An error occurred during rest request for the image generation. Proceed without requested image.");
-		return null;
+	private static RuntimeException classify(RestClientResponseException exception) {
+		HttpHeaders headers = exception.getResponseHeaders();
+		return ModelResponses.classify(exception.getRawStatusCode(), exception.getResponseBodyAsString(),
+				headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null);
+	}
+
+	static String textRequestBody(String prompt) {
+		return textRequestBody((Object) prompt);
+	}
+
+	static String batchTextRequestBody(List<String> prompts) {
+		return textRequestBody((Object) prompts);
+	}
+
+	/**
+	 * built with fastjson, so that quotes and backslashes of user subjects are escaped
+	 */
+	private static String textRequestBody(Object inputs) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("inputs", inputs);
+		body.put("parameters", Map.of("max_new_tokens", Integer.parseInt(MAX_AMOUNT_TOKENS)));
+		return JSON.toJSONString(body);
+	}
+
+	static String imageRequestBody(String prompt) {
+		return JSON.toJSONString(Map.of("inputs", prompt));
 	}
 }
@@ -3,6 +3,7 @@ package com.petproject.pokemoncardgenerator.services.rest;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import javax.imageio.ImageIO;
 
@@ -15,14 +16,36 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClientException;
 
+import com.petproject.pokemoncardgenerator.services.rest.cache.TextGenerationCache;
+import com.petproject.pokemoncardgenerator.services.rest.error.CircuitOpenException;
+import com.petproject.pokemoncardgenerator.services.rest.error.ModelCallException;
+import com.petproject.pokemoncardgenerator.services.rest.error.UpstreamBusyException;
+
 /**
- * Wrapper For Rest Communicator in order @Retryable to be invoked
+ * entry point of model calls: caching, sharing of identical requests in flight, retries and circuit breaking
+ * ({@link ModelCallResilience}) and the upstream limits, in this order, over the selected transport.
+ * Text prompts, when batching is enabled, go to {@link TextBatcher} right after the sharing, which applies retries
+ * and limits once per batch. Image calls, when hedging is enabled, go through {@link ImageCallHedger} right after the
+ * sharing, every hedged attempt has its own retries and limits.
+ * Failed calls end up as null results, so that callers proceed with their fallbacks.
  */
 @Service
 public class RestCommunicatorWrapper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RestCommunicatorWrapper.class);
+    private static final String HTTP_CLIENT_TRANSPORT = "http-client";
+
     private final RestCommunicator restCommunicator;
+    private final HttpClientRestCommunicator httpClientRestCommunicator;
+    private final TextGenerationCache textGenerationCache;
+    private final UpstreamCallLimiter upstreamCallLimiter;
+    private final ModelCallResilience modelCallResilience;
+    private final TextBatcher textBatcher;
+    private final ImageCallHedger imageCallHedger;
+
+    // identical prompts, which are already in flight, share one request
+    private final SingleFlight<ResponseEntity<String>> textFlights = new SingleFlight<>();
+    private final SingleFlight<ResponseEntity<byte[]>> imageFlights = new SingleFlight<>();
 
     @Value("${huggingface.api.token}")  // Note: possible typo in property key (tocken → token)
     private String apiToken;
@@ -30,13 +53,45 @@ public class RestCommunicatorWrapper {
     @Value("${generativeai:false}")
     private Boolean isAIAllowed;
 
-    public RestCommunicatorWrapper(RestCommunicator restCommunicator) {
+    // rest-template (blocking, default) or http-client (non-blocking JDK HttpClient)
+    @Value("${huggingface.transport:rest-template}")
+    private String transport;
+
+    public RestCommunicatorWrapper(RestCommunicator restCommunicator,
+            HttpClientRestCommunicator httpClientRestCommunicator, TextGenerationCache textGenerationCache,
+            UpstreamCallLimiter upstreamCallLimiter, ModelCallResilience modelCallResilience,
+            TextBatcher textBatcher, ImageCallHedger imageCallHedger) {
         this.restCommunicator = restCommunicator;
+        this.httpClientRestCommunicator = httpClientRestCommunicator;
+        this.textGenerationCache = textGenerationCache;
+        this.upstreamCallLimiter = upstreamCallLimiter;
+        this.modelCallResilience = modelCallResilience;
+        this.textBatcher = textBatcher;
+        this.imageCallHedger = imageCallHedger;
     }
 
     public String executeTextGenerationRestCall(String model, String prompt) {
+        String cached = textGenerationCache.get(model, prompt);
+        if (cached != null) {
+            LOGGER.info("Text generation is taken from cache");
+            return cached;
+        }
+
+        String result = executeUncachedTextGenerationRestCall(model, prompt);
+        textGenerationCache.put(model, prompt, result);
+        return result;
+    }
+
+    /**
+     * drops the generated text from cache, when it turned out to be unusable (e.g. too long name)
+     */
+    public void discardTextGeneration(String model, String prompt, String result) {
+        textGenerationCache.invalidate(model, prompt, result);
+    }
+
+    private String executeUncachedTextGenerationRestCall(String model, String prompt) {
         try {
-            ResponseEntity<String> response = restCommunicator.executeTextToTextRestCall(prompt);
+            ResponseEntity<String> response = Futures.await(callTextModel(model, prompt));
 
             if (response != null && response.getBody() != null) {
                 String result = response.getBody();
@@ -52,6 +107,10 @@ public class RestCommunicatorWrapper {
                 return result;
             }
 
+        } catch (CircuitOpenException | UpstreamBusyException ex) {
+            LOGGER.warn("Text generation is skipped: {}", ex.getMessage());
+        } catch (ModelCallException ex) {
+            LOGGER.error("Text generation failed: {}", ex.getMessage());
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             LOGGER.error("HTTP error from Hugging Face API: {} - {}", ex.getStatusCode(), ex.getResponseBodyAsString());
         } catch (RestClientException ex) {
@@ -64,20 +123,38 @@ public class RestCommunicatorWrapper {
     }
 
     public BufferedImage executeImageGenerationRestCall(String model, String prompt) {
+        byte[] result = executeRawImageGenerationRestCall(model, prompt);
+        if (result == null) {
+            return null;
+        }
+
+        try {
+            return ImageIO.read(new ByteArrayInputStream(result));
+        } catch (IOException ex) {
+            LOGGER.error("IOException while transforming image response", ex);
+            return null;
+        }
+    }
+
+    /**
+     * @return encoded image exactly as it was returned by the model, or null if the call failed
+     */
+    public byte[] executeRawImageGenerationRestCall(String model, String prompt) {
         try {
-            ResponseEntity<byte[]> response = restCommunicator.executeTextToImageRestCall(prompt);
+            ResponseEntity<byte[]> response = Futures.await(callImageModel(model, prompt));
 
             if (response != null && response.getBody() != null) {
-                byte[] result = response.getBody();
-                return ImageIO.read(new ByteArrayInputStream(result));
+                return response.getBody();
             }
 
+        } catch (CircuitOpenException | UpstreamBusyException ex) {
+            LOGGER.warn("Image generation is skipped: {}", ex.getMessage());
+        } catch (ModelCallException ex) {
+            LOGGER.error("Image generation failed: {}", ex.getMessage());
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             LOGGER.error("HTTP error from Hugging Face API (image gen): {} - {}", ex.getStatusCode(), ex.getResponseBodyAsString());
         } catch (RestClientException ex) {
             LOGGER.error("RestClientException during image generation call", ex);
-        } catch (IOException ex) {
-            LOGGER.error("IOException while transforming image response", ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error during image generation call", ex);
         }
@@ -85,6 +162,41 @@ public class RestCommunicatorWrapper {
         return null;
     }
 
+    private CompletableFuture<ResponseEntity<String>> callTextModel(String model, String prompt) {
+        String endpoint = ModelCallResilience.TEXT_ENDPOINT;
+        if (textBatcher.isEnabled()) {
+            // retries, circuit breaking and upstream limits are applied by the batcher, once per batch
+            return textFlights.execute(model + "\n" + prompt, () -> textBatcher.submit(prompt));
+        }
+        return textFlights.execute(model + "\n" + prompt, () -> isHttpClientTransport() ?
+                modelCallResilience.executeAsync(endpoint, () -> upstreamCallLimiter.executeAsync(endpoint,
+                        () -> httpClientRestCommunicator.executeTextToTextRestCallAsync(prompt))) :
+                Futures.fromBlocking(() -> modelCallResilience.executeBlocking(endpoint, () -> upstreamCallLimiter
+                        .executeBlocking(endpoint, () -> restCommunicator.executeTextToTextRestCall(prompt)))));
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> callImageModel(String model, String prompt) {
+        if (imageCallHedger.isEnabled()) {
+            return imageFlights.execute(model + "\n" + prompt, () -> isHttpClientTransport() ?
+                    imageCallHedger.executeAsync((endpoint, url) -> modelCallResilience.executeAsync(endpoint,
+                            () -> upstreamCallLimiter.executeAsync(endpoint,
+                                    () -> httpClientRestCommunicator.executeTextToImageRestCallAsync(url, prompt)))) :
+                    imageCallHedger.executeBlocking((endpoint, url) -> modelCallResilience.executeBlocking(endpoint,
+                            () -> upstreamCallLimiter.executeBlocking(endpoint,
+                                    () -> restCommunicator.executeTextToImageRestCall(url, prompt)))));
+        }
+        String endpoint = ModelCallResilience.IMAGE_ENDPOINT;
+        return imageFlights.execute(model + "\n" + prompt, () -> isHttpClientTransport() ?
+                modelCallResilience.executeAsync(endpoint, () -> upstreamCallLimiter.executeAsync(endpoint,
+                        () -> httpClientRestCommunicator.executeTextToImageRestCallAsync(prompt))) :
+                Futures.fromBlocking(() -> modelCallResilience.executeBlocking(endpoint, () -> upstreamCallLimiter
+                        .executeBlocking(endpoint, () -> restCommunicator.executeTextToImageRestCall(prompt)))));
+    }
+
+    private boolean isHttpClientTransport() {
+        return HTTP_CLIENT_TRANSPORT.equalsIgnoreCase(transport);
+    }
+
     public boolean isApiEnabled() {
         return apiToken != null && isAIAllowed;
     }
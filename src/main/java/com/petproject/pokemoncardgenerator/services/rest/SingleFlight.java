@@ -0,0 +1,112 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * coalesces concurrent calls with the same key into one outstanding call.
+ * The first caller starts the call, the ones arriving while it is in flight get its result or its failure.
+ * Every caller gets its own future: cancelling it only detaches that caller, the shared call is cancelled
+ * once all of its callers gave up.
+ */
+class SingleFlight<V> {
+
+	private final Map<String, Flight<V>> flights = new HashMap<>();
+
+	CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> call) {
+		Flight<V> flight;
+		boolean isLeader = false;
+		synchronized (flights) {
+			flight = flights.get(key);
+			if (flight == null) {
+				flight = new Flight<>();
+				flights.put(key, flight);
+				isLeader = true;
+			}
+			flight.waiters++;
+		}
+
+		if (isLeader) {
+			start(key, flight, call);
+		}
+
+		CompletableFuture<V> waiter = new CompletableFuture<>();
+		flight.result.whenComplete((value, exception) -> {
+			if (exception != null) {
+				waiter.completeExceptionally(exception);
+			} else {
+				waiter.complete(value);
+			}
+		});
+
+		Flight<V> joined = flight;
+		waiter.whenComplete((value, exception) -> {
+			if (waiter.isCancelled()) {
+				leave(key, joined);
+			}
+		});
+		return waiter;
+	}
+
+	int getInFlight() {
+		synchronized (flights) {
+			return flights.size();
+		}
+	}
+
+	private void start(String key, Flight<V> flight, Supplier<CompletableFuture<V>> call) {
+		CompletableFuture<V> upstream;
+		try {
+			upstream = call.get();
+		} catch (RuntimeException e) {
+			upstream = CompletableFuture.failedFuture(e);
+		}
+
+		boolean isAbandoned;
+		synchronized (flights) {
+			flight.upstream = upstream;
+			isAbandoned = flight.isAbandoned;
+		}
+		if (isAbandoned) {
+			upstream.cancel(true);
+		}
+
+		upstream.whenComplete((value, exception) -> {
+			synchronized (flights) {
+				flights.remove(key, flight);
+			}
+			if (exception != null) {
+				flight.result.completeExceptionally(exception);
+			} else {
+				flight.result.complete(value);
+			}
+		});
+	}
+
+	private void leave(String key, Flight<V> flight) {
+		CompletableFuture<V> upstream;
+		synchronized (flights) {
+			flight.waiters--;
+			if (flight.waiters > 0 || flight.result.isDone()) {
+				return;
+			}
+			// nobody waits anymore, the next caller with the same key starts a new call
+			flights.remove(key, flight);
+			flight.isAbandoned = true;
+			upstream = flight.upstream;
+		}
+		if (upstream != null) {
+			upstream.cancel(true);
+		}
+	}
+
+	private static final class Flight<V> {
+
+		private final CompletableFuture<V> result = new CompletableFuture<>();
+		private CompletableFuture<V> upstream;
+		private int waiters;
+		private boolean isAbandoned;
+	}
+}
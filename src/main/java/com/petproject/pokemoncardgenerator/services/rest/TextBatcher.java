@@ -0,0 +1,264 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.petproject.pokemoncardgenerator.services.rest.error.MalformedBatchAnswerException;
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+import com.petproject.pokemoncardgenerator.services.threads.ThreadFactoryProvider;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * collects text prompts arriving within a short window (or up to the batch size) and sends them as one inference
+ * request with an array of inputs. Ability names, names and descriptions are short, so the round trip costs more
+ * than the generation, and they are requested concurrently anyway: all ability names of a card at once, names of
+ * the series cards at once. Every caller gets its own answer shaped like the answer to a single prompt.
+ * A batch is a single call for {@link ModelCallResilience} and {@link UpstreamCallLimiter}: it is retried as a whole
+ * and counts once towards the circuit breaker, its final outcome is passed to all its callers. An answer, which cannot
+ * be split per prompt, is not an endpoint failure; its prompts are then sent one by one.
+ */
+@Component
+class TextBatcher implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TextBatcher.class);
+	private static final String HTTP_CLIENT_TRANSPORT = "http-client";
+	private static final String GENERATED_TEXT = "generated_text";
+
+	private final RestCommunicator restCommunicator;
+	private final HttpClientRestCommunicator httpClientRestCommunicator;
+	private final UpstreamCallLimiter upstreamCallLimiter;
+	private final ModelCallResilience modelCallResilience;
+	// blocking transport calls of the batches, their number is bounded by the limiter
+	private final ExecutorService dispatchExecutor;
+
+	private final boolean isEnabled;
+	private final long windowMillis;
+	private final int maxSize;
+	private final boolean isHttpClientTransport;
+
+	private List<Pending> pending = new ArrayList<>();
+	// incremented on every drain, so that the timer of an already sent batch does not cut the next one short
+	private long generation;
+	private boolean isFlushScheduled;
+
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong prompts = new AtomicLong();
+	private final AtomicLong failedBatches = new AtomicLong();
+	private final AtomicLong malformedBatches = new AtomicLong();
+
+	TextBatcher(RestCommunicator restCommunicator, HttpClientRestCommunicator httpClientRestCommunicator,
+			UpstreamCallLimiter upstreamCallLimiter, ModelCallResilience modelCallResilience,
+			ThreadFactoryProvider threadFactoryProvider,
+			@Value("${huggingface.text.batch.enabled:false}") boolean isEnabled,
+			@Value("${huggingface.text.batch.window-ms:20}") long windowMillis,
+			@Value("${huggingface.text.batch.max-size:8}") int maxSize,
+			@Value("${huggingface.transport:rest-template}") String transport) {
+		this.restCommunicator = restCommunicator;
+		this.httpClientRestCommunicator = httpClientRestCommunicator;
+		this.upstreamCallLimiter = upstreamCallLimiter;
+		this.modelCallResilience = modelCallResilience;
+		this.dispatchExecutor = Executors.newCachedThreadPool(threadFactoryProvider.newThreadFactory("text-batch-"));
+		this.isEnabled = isEnabled;
+		this.windowMillis = Math.max(1, windowMillis);
+		this.maxSize = Math.max(1, maxSize);
+		this.isHttpClientTransport = HTTP_CLIENT_TRANSPORT.equalsIgnoreCase(transport);
+		if (isEnabled) {
+			LOGGER.info("Text prompts are batched: up to {} per request, window {} ms", this.maxSize,
+					this.windowMillis);
+		}
+	}
+
+	boolean isEnabled() {
+		return isEnabled;
+	}
+
+	/**
+	 * @return answer to the prompt, its body has the same shape as the body of a single prompt call
+	 */
+	CompletableFuture<ResponseEntity<String>> submit(String prompt) {
+		Pending request = new Pending(prompt);
+		List<Pending> batch = null;
+		synchronized (this) {
+			pending.add(request);
+			if (pending.size() >= maxSize) {
+				batch = drain();
+			} else if (!isFlushScheduled) {
+				isFlushScheduled = true;
+				long scheduledGeneration = generation;
+				CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS)
+						.execute(() -> flush(scheduledGeneration));
+			}
+		}
+		if (batch != null) {
+			dispatch(batch);
+		}
+		return request.answer;
+	}
+
+	private void flush(long scheduledGeneration) {
+		List<Pending> batch;
+		synchronized (this) {
+			if (scheduledGeneration != generation) {
+				return;
+			}
+			batch = drain();
+		}
+		dispatch(batch);
+	}
+
+	private List<Pending> drain() {
+		List<Pending> batch = pending;
+		pending = new ArrayList<>();
+		generation++;
+		isFlushScheduled = false;
+		return batch;
+	}
+
+	private void dispatch(List<Pending> batch) {
+		// callers, which gave up while waiting for the window, are not sent
+		List<Pending> live = batch.stream().filter(request -> !request.answer.isDone()).toList();
+		if (live.isEmpty()) {
+			return;
+		}
+		List<String> batchPrompts = live.stream().map(request -> request.prompt).toList();
+		batches.incrementAndGet();
+		prompts.addAndGet(batchPrompts.size());
+
+		execute(() -> call(batchPrompts)).thenApply(entity -> answersOf(entity, batchPrompts.size()))
+				.whenComplete((answers, error) -> {
+					Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+							error.getCause() : error;
+					if (cause instanceof MalformedBatchAnswerException) {
+						malformedBatches.incrementAndGet();
+						LOGGER.warn("{}, {} prompts are sent one by one", cause.getMessage(), live.size());
+						for (Pending request : live) {
+							execute(() -> call(List.of(request.prompt))).whenComplete((answer, singleError) -> complete(
+									List.of(request), answer == null ? null : List.of(answer), singleError));
+						}
+						return;
+					}
+					if (cause != null) {
+						failedBatches.incrementAndGet();
+					}
+					complete(live, answers, cause);
+				});
+	}
+
+	/**
+	 * retries and circuit breaking apply to the call as a whole, the split of its answer is not part of it
+	 */
+	private CompletableFuture<ResponseEntity<String>> execute(Supplier<CompletableFuture<ResponseEntity<String>>> call) {
+		String endpoint = ModelCallResilience.TEXT_ENDPOINT;
+		return modelCallResilience.executeAsync(endpoint, () -> upstreamCallLimiter.executeAsync(endpoint, call));
+	}
+
+	private static void complete(List<Pending> requests, List<ResponseEntity<String>> answers, Throwable error) {
+		for (int i = 0; i < requests.size(); i++) {
+			if (error != null) {
+				requests.get(i).answer.completeExceptionally(error);
+			} else {
+				requests.get(i).answer.complete(answers.get(i));
+			}
+		}
+	}
+
+	private CompletableFuture<ResponseEntity<String>> call(List<String> batchPrompts) {
+		if (batchPrompts.size() == 1) {
+			// a lone prompt goes as a usual single input request
+			return isHttpClientTransport ?
+					httpClientRestCommunicator.executeTextToTextRestCallAsync(batchPrompts.get(0)) :
+					CompletableFuture.supplyAsync(() -> restCommunicator.executeTextToTextRestCall(batchPrompts.get(0)),
+							dispatchExecutor);
+		}
+		return isHttpClientTransport ?
+				httpClientRestCommunicator.executeBatchTextToTextRestCallAsync(batchPrompts) :
+				CompletableFuture.supplyAsync(() -> restCommunicator.executeBatchTextToTextRestCall(batchPrompts),
+						dispatchExecutor);
+	}
+
+	private static List<ResponseEntity<String>> answersOf(ResponseEntity<String> entity, int expected) {
+		return expected == 1 ? List.of(entity) : split(entity, expected);
+	}
+
+	/**
+	 * the answer is either [[{"generated_text": ...}], ...] or [{"generated_text": ...}, ...] depending on the
+	 * inference backend, every item is turned into [{"generated_text": ...}] as if its prompt was sent alone
+	 */
+	private static List<ResponseEntity<String>> split(ResponseEntity<String> entity, int expected) {
+		JSONArray items;
+		try {
+			items = entity.getBody() != null ? JSON.parseArray(entity.getBody()) : null;
+		} catch (JSONException e) {
+			throw new MalformedBatchAnswerException("Batch answer is not a JSON array: " + e.getMessage());
+		}
+		if (items == null || items.size() != expected) {
+			throw new MalformedBatchAnswerException("Batch answer has " + (items == null ? 0 : items.size())
+					+ " items instead of " + expected);
+		}
+
+		List<ResponseEntity<String>> answers = new ArrayList<>(expected);
+		for (Object item : items) {
+			Object answer = item instanceof JSONArray array && !array.isEmpty() ? array.get(0) : item;
+			String text = answer instanceof JSONObject object ? object.getString(GENERATED_TEXT) : null;
+			if (text == null) {
+				throw new MalformedBatchAnswerException("Batch answer item has no generated text: " + item);
+			}
+			String body = JSON.toJSONString(List.of(Map.of(GENERATED_TEXT, text)));
+			answers.add(ResponseEntity.status(entity.getStatusCode()).headers(entity.getHeaders()).body(body));
+		}
+		return answers;
+	}
+
+	@PreDestroy
+	void shutdown() {
+		dispatchExecutor.shutdownNow();
+	}
+
+	@Override
+	public String getStatsName() {
+		return "textBatching";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		long batchCount = batches.get();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", isEnabled);
+		stats.put("batches", batchCount);
+		stats.put("prompts", prompts.get());
+		stats.put("avgBatchSize", batchCount == 0 ? 0 : Math.round(prompts.get() * 100.0 / batchCount) / 100.0);
+		stats.put("failedBatches", failedBatches.get());
+		stats.put("malformedBatches", malformedBatches.get());
+		return stats;
+	}
+
+	private static final class Pending {
+
+		private final String prompt;
+		private final CompletableFuture<ResponseEntity<String>> answer = new CompletableFuture<>();
+
+		private Pending(String prompt) {
+			this.prompt = prompt;
+		}
+	}
+}
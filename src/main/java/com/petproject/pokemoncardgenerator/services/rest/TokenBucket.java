@@ -0,0 +1,60 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+/**
+ * token bucket refilled continuously at the given rate up to the burst size. Not thread-safe on its own,
+ * guarded by {@link UpstreamLane}. A non-positive rate means no limit.
+ */
+final class TokenBucket {
+
+	private final double ratePerNano;
+	private final double burst;
+
+	private double tokens;
+	private long refilledAt;
+
+	TokenBucket(double requestsPerSecond, int burst, long nowNanos) {
+		this.ratePerNano = requestsPerSecond / 1e9;
+		this.burst = Math.max(1, burst);
+		this.tokens = this.burst;
+		this.refilledAt = nowNanos;
+	}
+
+	boolean isLimited() {
+		return ratePerNano > 0;
+	}
+
+	boolean tryTake(long nowNanos) {
+		if (!isLimited()) {
+			return true;
+		}
+		refill(nowNanos);
+		if (tokens >= 1) {
+			tokens--;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return time until the given number of tokens is available, 0 if they are available already
+	 */
+	long nanosUntil(double needed, long nowNanos) {
+		if (!isLimited()) {
+			return 0;
+		}
+		refill(nowNanos);
+		return needed <= tokens ? 0 : (long) Math.ceil((needed - tokens) / ratePerNano);
+	}
+
+	double getTokens(long nowNanos) {
+		refill(nowNanos);
+		return tokens;
+	}
+
+	private void refill(long nowNanos) {
+		if (isLimited()) {
+			tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * ratePerNano);
+		}
+		refilledAt = nowNanos;
+	}
+}
@@ -0,0 +1,139 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+
+/**
+ * keeps the AI calls leaving the JVM under the provider quota, one {@link UpstreamLane} per model endpoint.
+ * All calls go with the same API token, so a lane is also the quota of the model for that token.
+ * Every lane caps calls in flight and started calls per second, serves waiters in arrival order and rejects calls,
+ * which would not get their turn within the acquire timeout, with a fast busy signal instead of a late one.
+ * Lane settings are ai.upstream.&lt;endpoint&gt;.*, falling back to ai.upstream.image.* for the alternate image
+ * endpoints and then to ai.upstream.* for all endpoints.
+ */
+@Component
+class UpstreamCallLimiter implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(UpstreamCallLimiter.class);
+
+	private static final String PREFIX = "ai.upstream.";
+
+	private final Environment environment;
+	private final Map<String, UpstreamLane> lanes = new ConcurrentHashMap<>();
+
+	UpstreamCallLimiter(Environment environment) {
+		this.environment = environment;
+		lane(ModelCallResilience.TEXT_ENDPOINT);
+		lane(ModelCallResilience.IMAGE_ENDPOINT);
+	}
+
+	/**
+	 * runs the blocking call on the current thread once the lane admits it
+	 */
+	<T> T executeBlocking(String endpoint, Supplier<T> call) {
+		UpstreamLane lane = lane(endpoint);
+		Futures.await(lane.acquire());
+		long start = System.nanoTime();
+		try {
+			return call.get();
+		} finally {
+			lane.release(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * starts the asynchronous call once the lane admits it, the slot is held until the call completes.
+	 * Cancelling the returned future cancels the call or, if it has not started yet, its place in the queue.
+	 */
+	<T> CompletableFuture<T> executeAsync(String endpoint, Supplier<CompletableFuture<T>> call) {
+		UpstreamLane lane = lane(endpoint);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		CompletableFuture<Void> admission = lane.acquire();
+
+		admission.whenComplete((ignored, exception) -> {
+			if (exception != null) {
+				result.completeExceptionally(exception);
+				return;
+			}
+			if (result.isDone()) {
+				lane.releaseUnused();
+				return;
+			}
+			long start = System.nanoTime();
+
+			CompletableFuture<T> upstream;
+			try {
+				upstream = call.get();
+			} catch (RuntimeException e) {
+				upstream = CompletableFuture.failedFuture(e);
+			}
+			upstream.whenComplete((value, error) -> {
+				lane.release(System.nanoTime() - start);
+				if (error != null) {
+					result.completeExceptionally(error);
+				} else {
+					result.complete(value);
+				}
+			});
+
+			CompletableFuture<T> started = upstream;
+			result.whenComplete((value, error) -> {
+				if (result.isCancelled()) {
+					started.cancel(true);
+				}
+			});
+		});
+
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled()) {
+				admission.cancel(false);
+			}
+		});
+		return result;
+	}
+
+	private UpstreamLane lane(String endpoint) {
+		return lanes.computeIfAbsent(endpoint, key -> {
+			int maxConcurrent = property(key, "max-concurrent", Integer.class, 16);
+			double requestsPerSecond = property(key, "requests-per-second", Double.class, 0d);
+			int burst = property(key, "burst", Integer.class, (int) Math.max(1, Math.ceil(requestsPerSecond)));
+			int maxQueue = property(key, "max-queue", Integer.class, 0);
+			long acquireTimeoutMillis = property(key, "acquire-timeout-ms", Long.class, 600000L);
+			LOGGER.info("Calls to {} model: max {} in flight, {} per second (burst {}), queue {}, acquire timeout {} ms",
+					key, maxConcurrent, requestsPerSecond > 0 ? requestsPerSecond : "unlimited", burst,
+					maxQueue > 0 ? maxQueue : "unbounded", acquireTimeoutMillis);
+			return new UpstreamLane(key, maxConcurrent, requestsPerSecond, burst, maxQueue, acquireTimeoutMillis);
+		});
+	}
+
+	private <T> T property(String endpoint, String key, Class<T> type, T defaultValue) {
+		T value = environment.getProperty(PREFIX + endpoint + "." + key, type);
+		String parent = ModelCallResilience.parentEndpoint(endpoint);
+		if (value == null && parent != null) {
+			value = environment.getProperty(PREFIX + parent + "." + key, type);
+		}
+		return value != null ? value : environment.getProperty(PREFIX + key, type, defaultValue);
+	}
+
+	@Override
+	public String getStatsName() {
+		return "upstreamCalls";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		lanes.forEach((endpoint, lane) -> stats.put(endpoint, lane.getStats()));
+		return stats;
+	}
+}
@@ -0,0 +1,193 @@
+package com.petproject.pokemoncardgenerator.services.rest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.petproject.pokemoncardgenerator.services.rest.error.UpstreamBusyException;
+
+/**
+ * admission of calls to one model endpoint: at most maxConcurrent in flight and at most requestsPerSecond started
+ * (with bursts up to burst). Waiters are served strictly in arrival order, a waiter at the head blocks the ones
+ * behind it even if they could start, so that nobody is overtaken. A call, which according to the current queue,
+ * rate and average call time would not start within the acquire timeout, is rejected right away as busy,
+ * as well as a call over the queue limit; a waiter whose timeout passes anyway is rejected as busy too.
+ */
+final class UpstreamLane {
+
+	// weight of the latest call in the average call time
+	private static final double LATENCY_SMOOTHING = 0.2;
+
+	private final String name;
+	private final int maxConcurrent;
+	private final double requestsPerSecond;
+	private final int maxQueue;
+	private final long acquireTimeoutMillis;
+	private final TokenBucket bucket;
+
+	private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+	private int inFlight;
+	private boolean isRefillScheduled;
+	private double averageCallNanos;
+
+	private long admitted;
+	private long rejectedBusy;
+	private long timeouts;
+
+	UpstreamLane(String name, int maxConcurrent, double requestsPerSecond, int burst, int maxQueue,
+			long acquireTimeoutMillis) {
+		this.name = name;
+		this.maxConcurrent = Math.max(1, maxConcurrent);
+		this.requestsPerSecond = requestsPerSecond;
+		this.maxQueue = maxQueue;
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+		this.bucket = new TokenBucket(requestsPerSecond, burst, System.nanoTime());
+	}
+
+	/**
+	 * @return future completing once the call may start, or failing with {@link UpstreamBusyException}.
+	 * Every successful acquire must be followed by {@link #release(long)}, or by {@link #releaseUnused()} when the
+	 * call is not made.
+	 */
+	CompletableFuture<Void> acquire() {
+		CompletableFuture<Void> waiter = new CompletableFuture<>();
+		synchronized (this) {
+			purgeDone();
+			int ahead = waiters.size();
+			if (maxQueue > 0 && ahead >= maxQueue) {
+				rejectedBusy++;
+				return CompletableFuture.failedFuture(busy(ahead + " calls are waiting already"));
+			}
+			long estimatedWaitNanos = estimateWaitNanos(ahead);
+			if (acquireTimeoutMillis > 0 && estimatedWaitNanos > TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis)) {
+				rejectedBusy++;
+				return CompletableFuture.failedFuture(
+						busy("estimated wait " + TimeUnit.NANOSECONDS.toMillis(estimatedWaitNanos) + " ms"));
+			}
+			waiters.addLast(waiter);
+		}
+
+		if (acquireTimeoutMillis > 0 && !waiter.isDone()) {
+			CompletableFuture.delayedExecutor(acquireTimeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+				if (waiter.completeExceptionally(busy("no turn within " + acquireTimeoutMillis + " ms"))) {
+					synchronized (this) {
+						timeouts++;
+					}
+				}
+			});
+		}
+		pump();
+		return waiter;
+	}
+
+	void release(long callNanos) {
+		synchronized (this) {
+			inFlight--;
+			averageCallNanos = averageCallNanos == 0 ? callNanos :
+					averageCallNanos + LATENCY_SMOOTHING * (callNanos - averageCallNanos);
+		}
+		pump();
+	}
+
+	/**
+	 * frees a slot, whose call was not made, e.g. cancelled while queued. It does not count into the average call
+	 * time, which drives the wait estimate.
+	 */
+	void releaseUnused() {
+		synchronized (this) {
+			inFlight--;
+		}
+		pump();
+	}
+
+	/**
+	 * starts waiters from the head while there is a free slot and a token, completing them outside of the lock
+	 */
+	private void pump() {
+		while (true) {
+			CompletableFuture<Void> next;
+			long refillDelayNanos = -1;
+			synchronized (this) {
+				purgeDone();
+				if (waiters.isEmpty() || inFlight >= maxConcurrent) {
+					return;
+				}
+				long now = System.nanoTime();
+				if (!bucket.tryTake(now)) {
+					if (!isRefillScheduled) {
+						isRefillScheduled = true;
+						refillDelayNanos = Math.max(1, bucket.nanosUntil(1, now));
+					}
+					next = null;
+				} else {
+					next = waiters.pollFirst();
+					inFlight++;
+					admitted++;
+				}
+			}
+
+			if (next == null) {
+				if (refillDelayNanos > 0) {
+					CompletableFuture.delayedExecutor(refillDelayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+						synchronized (this) {
+							isRefillScheduled = false;
+						}
+						pump();
+					});
+				}
+				return;
+			}
+			// the waiter could have timed out or been cancelled in the meantime, then the slot goes to the next one
+			if (!next.complete(null)) {
+				synchronized (this) {
+					inFlight--;
+					admitted--;
+				}
+			}
+		}
+	}
+
+	private void purgeDone() {
+		while (!waiters.isEmpty() && waiters.peekFirst().isDone()) {
+			waiters.pollFirst();
+		}
+	}
+
+	/**
+	 * time until a new waiter behind the given number of waiters would start: the later of its rate token and
+	 * of a free slot, assuming calls keep taking the average call time
+	 */
+	private long estimateWaitNanos(int ahead) {
+		long rateWait = bucket.nanosUntil(ahead + 1, System.nanoTime());
+		long slotWait = 0;
+		int beyondCapacity = inFlight + ahead + 1 - maxConcurrent;
+		if (beyondCapacity > 0) {
+			slotWait = (long) (Math.ceil((double) beyondCapacity / maxConcurrent) * averageCallNanos);
+		}
+		return Math.max(rateWait, slotWait);
+	}
+
+	private UpstreamBusyException busy(String reason) {
+		return new UpstreamBusyException("Calls to " + name + " model are busy: " + reason);
+	}
+
+	synchronized Map<String, Object> getStats() {
+		purgeDone();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("inFlight", inFlight);
+		stats.put("maxConcurrent", maxConcurrent);
+		stats.put("waiting", waiters.size());
+		stats.put("requestsPerSecond", requestsPerSecond);
+		if (bucket.isLimited()) {
+			stats.put("tokens", Math.floor(bucket.getTokens(System.nanoTime()) * 100) / 100);
+		}
+		stats.put("avgCallMillis", Math.round(averageCallNanos / 1e6));
+		stats.put("admitted", admitted);
+		stats.put("rejectedBusy", rejectedBusy);
+		stats.put("timeouts", timeouts);
+		return stats;
+	}
+}
@@ -0,0 +1,165 @@
+package com.petproject.pokemoncardgenerator.services.rest.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+
+/**
+ * memoizing cache of text generations by model and prompt.
+ * A stored answer is served as soon as there is one. Up to {@code variants} distinct answers are collected per prompt:
+ * while there are fewer of them, a lookup is a miss with probability 1 - answers/variants and the model is asked
+ * again, the stored answers are handed out in turns, so repeated prompts still give varied names. A prompt whose
+ * model keeps repeating the same answers stops collecting after {@code variants} repeated answers.
+ * Entries expire after TTL counted from the first answer, the least recently used entries are evicted over the size
+ * limit.
+ */
+@Component
+public class TextGenerationCache implements StatsSource {
+
+	private final boolean enabled;
+	private final int maxEntries;
+	private final long ttlMillis;
+	private final int variants;
+
+	private final Map<String, Entry> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public TextGenerationCache(@Value("${text.cache.enabled:true}") boolean enabled,
+			@Value("${text.cache.max-entries:2000}") int maxEntries,
+			@Value("${text.cache.ttl-minutes:360}") long ttlMinutes,
+			@Value("${text.cache.variants:3}") int variants) {
+		this.enabled = enabled;
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMinutes * 60 * 1000;
+		this.variants = Math.max(1, variants);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > TextGenerationCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return one of the stored answers, or null if the model should be asked
+	 */
+	public String get(String model, String prompt) {
+		if (!enabled) {
+			return null;
+		}
+
+		String key = key(model, prompt);
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.isExpired(ttlMillis)) {
+				entries.remove(key);
+				entry = null;
+			}
+			if (entry == null || entry.answers.isEmpty() || (entry.isCollecting(variants)
+					&& ThreadLocalRandom.current().nextInt(variants) >= entry.answers.size())) {
+				misses.incrementAndGet();
+				return null;
+			}
+
+			hits.incrementAndGet();
+			return entry.answers.get(entry.next++ % entry.answers.size());
+		}
+	}
+
+	public void put(String model, String prompt, String answer) {
+		if (!enabled || answer == null) {
+			return;
+		}
+
+		String key = key(model, prompt);
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry == null || entry.isExpired(ttlMillis)) {
+				entry = new Entry();
+				entries.put(key, entry);
+			}
+			if (entry.answers.contains(answer)) {
+				entry.repeats++;
+			} else if (entry.answers.size() < variants) {
+				entry.answers.add(answer);
+			}
+		}
+	}
+
+	/**
+	 * removes the answer, which turned out to be unusable, so it would not be handed out again
+	 */
+	public void invalidate(String model, String prompt, String answer) {
+		if (!enabled) {
+			return;
+		}
+
+		synchronized (entries) {
+			Entry entry = entries.get(key(model, prompt));
+			if (entry != null) {
+				entry.answers.remove(answer);
+			}
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	@Override
+	public String getStatsName() {
+		return "textCache";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("hits", hits.get());
+		stats.put("misses", misses.get());
+		stats.put("entries", size());
+		return stats;
+	}
+
+	private static String key(String model, String prompt) {
+		return model + "\n" + prompt;
+	}
+
+	private static final class Entry {
+
+		private final long createdAt = System.currentTimeMillis();
+		private final List<String> answers = new ArrayList<>();
+		private int next;
+		// answers which were already stored, a model answering deterministically would otherwise be asked forever
+		private int repeats;
+
+		private boolean isCollecting(int variants) {
+			return answers.size() < variants && repeats < variants;
+		}
+
+		private boolean isExpired(long ttlMillis) {
+			return System.currentTimeMillis() - createdAt > ttlMillis;
+		}
+	}
+}
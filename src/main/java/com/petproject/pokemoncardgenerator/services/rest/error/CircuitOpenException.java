@@ -0,0 +1,11 @@
+package com.petproject.pokemoncardgenerator.services.rest.error;
+
+/**
+ * the call was not made, because the endpoint kept failing recently and its circuit breaker is open
+ */
+public class CircuitOpenException extends RuntimeException {
+
+	public CircuitOpenException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,12 @@
+package com.petproject.pokemoncardgenerator.services.rest.error;
+
+/**
+ * the batch call succeeded, but its answer could not be split into one answer per prompt.
+ * Says nothing about the health of the endpoint, the prompts of the batch are sent one by one instead.
+ */
+public class MalformedBatchAnswerException extends RuntimeException {
+
+	public MalformedBatchAnswerException(String message) {
+		super(message);
+	}
+}
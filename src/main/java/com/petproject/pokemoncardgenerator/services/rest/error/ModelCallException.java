@@ -0,0 +1,33 @@
+package com.petproject.pokemoncardgenerator.services.rest.error;
+
+/**
+ * unsuccessful response of a model endpoint. Unless a subclass says otherwise, repeating the call would not help.
+ */
+public class ModelCallException extends RuntimeException {
+
+	private final int status;
+	// delay suggested by the endpoint before the next attempt, -1 when there is no hint
+	private final long retryAfterMillis;
+
+	public ModelCallException(String message, int status) {
+		this(message, status, -1);
+	}
+
+	protected ModelCallException(String message, int status, long retryAfterMillis) {
+		super(message);
+		this.status = status;
+		this.retryAfterMillis = retryAfterMillis;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public long getRetryAfterMillis() {
+		return retryAfterMillis;
+	}
+
+	public boolean isRetryable() {
+		return false;
+	}
+}
@@ -1,8 +1,20 @@
 package com.petproject.pokemoncardgenerator.services.rest.error;
 
-public class ModelIsLoadingException extends RuntimeException{
+/**
+ * 503 of a model, which is not loaded yet. The retry hint is the estimated_time of the response, if present.
+ */
+public class ModelIsLoadingException extends ModelCallException {
 
 	public ModelIsLoadingException(String message) {
-		super(message);
+		this(message, -1);
+	}
+
+	public ModelIsLoadingException(String message, long estimatedMillis) {
+		super(message, 503, estimatedMillis);
+	}
+
+	@Override
+	public boolean isRetryable() {
+		return true;
 	}
 }
@@ -0,0 +1,16 @@
+package com.petproject.pokemoncardgenerator.services.rest.error;
+
+/**
+ * 429 of a model endpoint. The retry hint is the Retry-After header, if present.
+ */
+public class ModelRateLimitedException extends ModelCallException {
+
+	public ModelRateLimitedException(String message, long retryAfterMillis) {
+		super(message, 429, retryAfterMillis);
+	}
+
+	@Override
+	public boolean isRetryable() {
+		return true;
+	}
+}
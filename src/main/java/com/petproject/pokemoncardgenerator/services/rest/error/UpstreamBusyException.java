@@ -0,0 +1,11 @@
+package com.petproject.pokemoncardgenerator.services.rest.error;
+
+/**
+ * the call was not made, because it would not get its turn at the model endpoint within the acquire timeout
+ */
+public class UpstreamBusyException extends RuntimeException {
+
+	public UpstreamBusyException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,63 @@
+package com.petproject.pokemoncardgenerator.services.stats;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * runtime counters of caches, queues and limiters.
+ * The endpoint shares the port with the webhook, so it is off unless stats.enabled=true, and with stats.token set
+ * requests must carry the token in the X-Stats-Token header.
+ */
+@RestController
+@ConditionalOnProperty(name = "stats.enabled", havingValue = "true")
+public class StatsController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatsController.class);
+
+	private static final String TOKEN_HEADER = "X-Stats-Token";
+
+	private final List<StatsSource> statsSources;
+
+	@Value("${stats.token:}")
+	private String token;
+
+	public StatsController(List<StatsSource> statsSources) {
+		this.statsSources = statsSources;
+	}
+
+	@GetMapping("${stats.path:/stats}")
+	public ResponseEntity<Map<String, Map<String, Object>>> getStats(
+			@RequestHeader(value = TOKEN_HEADER, required = false) String requestToken) {
+		if (!isAuthorized(requestToken)) {
+			LOGGER.warn("Stats request with invalid token rejected");
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+
+		Map<String, Map<String, Object>> stats = new TreeMap<>();
+		for (StatsSource source : statsSources) {
+			stats.put(source.getStatsName(), source.getStats());
+		}
+		return ResponseEntity.ok(stats);
+	}
+
+	private boolean isAuthorized(String requestToken) {
+		if (token.isBlank()) {
+			return true;
+		}
+		return requestToken != null && MessageDigest.isEqual(
+				token.getBytes(StandardCharsets.UTF_8), requestToken.getBytes(StandardCharsets.UTF_8));
+	}
+}
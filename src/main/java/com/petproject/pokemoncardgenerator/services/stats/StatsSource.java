@@ -0,0 +1,13 @@
+package com.petproject.pokemoncardgenerator.services.stats;
+
+import java.util.Map;
+
+/**
+ * component, which exposes its runtime counters on the stats endpoint
+ */
+public interface StatsSource {
+
+	String getStatsName();
+
+	Map<String, Object> getStats();
+}
@@ -1,8 +1,5 @@
 package com.petproject.pokemoncardgenerator.services.telegrambot;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
@@ -10,39 +7,49 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.PhotoSize;
 import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
 import org.telegram.telegrambots.meta.api.objects.media.InputMediaPhoto;
 
+import com.petproject.pokemoncardgenerator.model.EncodedCard;
 import com.petproject.pokemoncardgenerator.model.PokemonParameters;
 import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
 import com.petproject.pokemoncardgenerator.services.generator.CardProcessor;
+import com.petproject.pokemoncardgenerator.services.telegrambot.files.TelegramFileIdStore;
 
 @Service
+@ConditionalOnProperty(name = "bot.enabled", havingValue = "true", matchIfMissing = true)
 public class ServiceForTelegramBotCommunication {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ServiceForTelegramBotCommunication.class);
+    private static final String PHOTO_KIND = "photo";
     private TelegramLongPollingBot bot;
     private final CardProcessor cardProcessor;
+    private final TelegramFileIdStore fileIdStore;
 
     private final Map<Long, PokemonElement> userElementMap = new ConcurrentHashMap<>();
     private final Map<Long, String> userConceptMap = new ConcurrentHashMap<>();
 
-    public ServiceForTelegramBotCommunication(CardProcessor cardProcessor) {
+    public ServiceForTelegramBotCommunication(CardProcessor cardProcessor, TelegramFileIdStore fileIdStore) {
         this.cardProcessor = cardProcessor;
+        this.fileIdStore = fileIdStore;
     }
 
     public void setBot(TelegramLongPollingBot bot) {
         this.bot = bot;
     }
 
-    public void sendMultiplePhotoMessage(long chatId, List<BufferedImage> contents, int replyToMessageId) {
+    public void sendMultiplePhotoMessage(long chatId, List<EncodedCard> contents, int replyToMessageId) {
         if (contents.isEmpty()) return;
 
         if (contents.size() == 1) {
@@ -54,65 +61,108 @@ public class ServiceForTelegramBotCommunication {
         }
     }
 
-    public void sendPhotoMessage(long chatId, BufferedImage content, int replyToMessageId) {
-        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            ImageIO.write(content, "png", os);
-            InputStream is = new ByteArrayInputStream(os.toByteArray());
-            SendPhoto sendPhoto = SendPhoto.builder()
-                .chatId(chatId)
-                .photo(new InputFile(is, "pokemon"))
-                .caption("")
-                .replyToMessageId(replyToMessageId)
-                .parseMode("HTML")
-                .build();
-            sendMessage(sendPhoto);
-        } catch (IOException e) {
-            LOGGER.error("Error while preprocessing card image", e);
+    public void sendPhotoMessage(long chatId, EncodedCard content, int replyToMessageId) {
+        String fileId = fileIdStore.get(PHOTO_KIND, content.getSha256());
+        try {
+            if (fileId != null) {
+                try {
+                    bot.execute(buildPhoto(chatId, new InputFile(fileId), replyToMessageId));
+                    return;
+                } catch (TelegramApiRequestException e) {
+                    LOGGER.warn("Stored file id was refused, uploading the card again: {}", e.getMessage());
+                    fileIdStore.invalidate(PHOTO_KIND, content.getSha256());
+                }
+            }
+
+            Message message = bot.execute(buildPhoto(chatId, new InputFile(content.openStream(), "pokemon"),
+                    replyToMessageId));
+            rememberFileId(content, message);
+        } catch (TelegramApiException e) {
+            LOGGER.error("Error sending photo message", e);
         }
     }
 
-    private void sendMediaGroup(long chatId, List<BufferedImage> contents, int replyToMessageId) {
-        List<InputMedia> medias = contents.stream().map(image -> {
-            try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-                ImageIO.write(image, "png", os);
-                InputStream is = new ByteArrayInputStream(os.toByteArray());
+    private static SendPhoto buildPhoto(long chatId, InputFile photo, int replyToMessageId) {
+        return SendPhoto.builder()
+            .chatId(chatId)
+            .photo(photo)
+            .caption("")
+            .replyToMessageId(replyToMessageId)
+            .parseMode("HTML")
+            .build();
+    }
+
+    private void sendMediaGroup(long chatId, List<EncodedCard> contents, int replyToMessageId) {
+        List<String> fileIds = contents.stream()
+                .map(card -> fileIdStore.get(PHOTO_KIND, card.getSha256()))
+                .collect(Collectors.toList());
+        try {
+            if (fileIds.stream().anyMatch(Objects::nonNull)) {
+                try {
+                    rememberFileIds(contents, fileIds, bot.execute(buildMediaGroup(chatId, contents, fileIds, replyToMessageId)));
+                    return;
+                } catch (TelegramApiRequestException e) {
+                    LOGGER.warn("Stored file ids were refused, uploading the cards again: {}", e.getMessage());
+                    for (int i = 0; i < contents.size(); i++) {
+                        if (fileIds.get(i) != null) {
+                            fileIdStore.invalidate(PHOTO_KIND, contents.get(i).getSha256());
+                            fileIds.set(i, null);
+                        }
+                    }
+                }
+            }
+
+            rememberFileIds(contents, fileIds, bot.execute(buildMediaGroup(chatId, contents, fileIds, replyToMessageId)));
+        } catch (TelegramApiException e) {
+            LOGGER.error("Error sending media group", e);
+        }
+    }
+
+    /**
+     * @param fileIds file id of every card, which was already uploaded, null for cards to upload
+     */
+    private static SendMediaGroup buildMediaGroup(long chatId, List<EncodedCard> contents, List<String> fileIds,
+            int replyToMessageId) {
+        List<InputMedia> medias = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            InputMediaPhoto.InputMediaPhotoBuilder media = InputMediaPhoto.builder()
+                    .caption("Your custom Pokemon card is ready!!!^^")
+                    .parseMode("HTML");
+            if (fileIds.get(i) != null) {
+                media.media(fileIds.get(i));
+            } else {
                 String name = UUID.randomUUID().toString();
-                return InputMediaPhoto.builder()
-                        .media("attach://" + name)
+                media.media("attach://" + name)
                         .mediaName(name)
                         .isNewMedia(true)
-                        .newMediaStream(is)
-                        .caption("Your custom Pokemon card is ready!!!^^")
-                        .parseMode("HTML")
-                        .build();
-            } catch (IOException e) {
-                LOGGER.error("Error generating media group", e);
-                return null;
+                        .newMediaStream(contents.get(i).openStream());
             }
-        }).filter(Objects::nonNull).collect(Collectors.toList());
+            medias.add(media.build());
+        }
 
-        SendMediaGroup sendMediaGroup = SendMediaGroup.builder()
+        return SendMediaGroup.builder()
                 .chatId(chatId)
                 .medias(medias)
                 .replyToMessageId(replyToMessageId)
                 .build();
-        sendMessage(sendMediaGroup);
     }
 
-    private void sendMessage(SendPhoto message) {
-        try {
-            bot.execute(message);
-        } catch (TelegramApiException e) {
-            LOGGER.error("Error sending photo message", e);
+    private void rememberFileIds(List<EncodedCard> contents, List<String> fileIds, List<Message> messages) {
+        for (int i = 0; i < contents.size() && i < messages.size(); i++) {
+            if (fileIds.get(i) == null) {
+                rememberFileId(contents.get(i), messages.get(i));
+            }
         }
     }
 
-    private void sendMessage(SendMediaGroup message) {
-        try {
-            bot.execute(message);
-        } catch (TelegramApiException e) {
-            LOGGER.error("Error sending media group", e);
+    private void rememberFileId(EncodedCard content, Message message) {
+        if (message == null || message.getPhoto() == null) {
+            return;
         }
+        // every size of the photo refers to the same upload, the largest one is sent again
+        message.getPhoto().stream()
+                .max(Comparator.comparing(PhotoSize::getWidth))
+                .ifPresent(photo -> fileIdStore.put(PHOTO_KIND, content.getSha256(), photo.getFileId()));
     }
 
     public void elementCommandReceived(long chatId, long userId, String element) {
@@ -147,7 +197,7 @@ public class ServiceForTelegramBotCommunication {
                 .element(element)
                 .pokemonConcept(concept)
                 .build();
-        List<BufferedImage> images = cardProcessor.generateCards(parameters);
+        List<EncodedCard> images = cardProcessor.generateCards(parameters);
         sendMultiplePhotoMessage(chatId, images, replyToMessageId);
 
         userElementMap.remove(userId);
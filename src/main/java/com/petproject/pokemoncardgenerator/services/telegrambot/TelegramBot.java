@@ -2,40 +2,45 @@ package com.petproject.pokemoncardgenerator.services.telegrambot;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.commands.SetMyCommands;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.commands.BotCommand;
 import org.telegram.telegrambots.meta.api.objects.commands.scope.BotCommandScopeDefault;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import com.petproject.pokemoncardgenerator.services.telegrambot.config.BotConfig;
+import com.petproject.pokemoncardgenerator.services.telegrambot.scheduler.BotTaskScheduler;
+import com.petproject.pokemoncardgenerator.services.telegrambot.scheduler.GenerationSubmission;
 
 @Service
+@ConditionalOnProperty(name = "bot.enabled", havingValue = "true", matchIfMissing = true)
 public class TelegramBot extends TelegramLongPollingBot {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TelegramBot.class);
     private final BotConfig config;
     private final ServiceForTelegramBotCommunication serviceForTelegramBotCommunication;
-
-    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
-            10, 20, 60L, TimeUnit.SECONDS,
-            new ArrayBlockingQueue<>(50),
-            new ThreadPoolExecutor.AbortPolicy()
-    );
+    private final BotTaskScheduler scheduler;
 
     private final ConcurrentHashMap<Long, Boolean> activeUsers = new ConcurrentHashMap<>();
 
-    public TelegramBot(BotConfig botConfig, ServiceForTelegramBotCommunication serviceForTelegramBotCommunication) {
-        super(botConfig.getToken());
+    public TelegramBot(BotConfig botConfig, ServiceForTelegramBotCommunication serviceForTelegramBotCommunication,
+            BotTaskScheduler scheduler) {
+        super(botOptions(botConfig), botConfig.getToken());
         this.config = botConfig;
         this.serviceForTelegramBotCommunication = serviceForTelegramBotCommunication;
+        this.scheduler = scheduler;
 
         serviceForTelegramBotCommunication.setBot(this);
 
@@ -52,10 +57,12 @@ public class TelegramBot extends TelegramLongPollingBot {
 
     @Override
     public void onUpdateReceived(Update update) {
-        try {
-            executor.submit(() -> processUpdate(update));
-        } catch (RejectedExecutionException e) {
-            LOGGER.warn("Bot is under heavy load. Update rejected: " + e.getMessage());
+        if (!scheduler.dispatch(() -> processUpdate(update))) {
+            LOGGER.warn("Bot is under heavy load. Update {} rejected", update.getUpdateId());
+            if (update.hasMessage()) {
+                sendTextMessage(update.getMessage().getChatId(), update.getMessage().getMessageId(),
+                        "🚦 The bot is overloaded right now. Please try again in a minute.");
+            }
         }
     }
 
@@ -81,9 +88,8 @@ public class TelegramBot extends TelegramLongPollingBot {
                             return;
                         }
 
-                        sendTextMessage(chatId, messageId, "✅ Your request has been received and is being processed...");
-
-                        executor.submit(() -> {
+                        QueuePositionReporter positionReporter = new QueuePositionReporter(chatId);
+                        GenerationSubmission submission = scheduler.submitGeneration(chatId, () -> {
                             try {
                                 String payload = messageText.replaceFirst("/create_pokemon(@\\w+)?", "").trim();
                                 String[] parts = payload.split("-", 2);
@@ -102,7 +108,18 @@ public class TelegramBot extends TelegramLongPollingBot {
                             } finally {
                                 activeUsers.remove(userId);
                             }
-                        });
+                        }, positionReporter);
+
+                        if (submission.isAccepted()) {
+                            Message status = sendTextMessage(chatId, messageId, queueStatusText(submission.getPosition()));
+                            positionReporter.attach(status, submission.getPosition());
+                        } else if (submission.getStatus() == GenerationSubmission.Status.CHAT_BACKLOG_FULL) {
+                            activeUsers.remove(userId);
+                            sendTextMessage(chatId, messageId, "🚦 This chat already has too many cards waiting. Please try again when some of them are ready.");
+                        } else {
+                            activeUsers.remove(userId);
+                            sendTextMessage(chatId, messageId, "🚦 Too many cards are being generated right now. Please try again in a few minutes.");
+                        }
                     }
                     default -> {
                         // Do nothing for unknown commands
@@ -114,16 +131,85 @@ public class TelegramBot extends TelegramLongPollingBot {
         }
     }
 
-    private void sendTextMessage(long chatId, int replyToMessageId, String text) {
+    private Message sendTextMessage(long chatId, int replyToMessageId, String text) {
         SendMessage message = new SendMessage();
         message.setChatId(String.valueOf(chatId));
         message.setReplyToMessageId(replyToMessageId);
         message.setText(text);
         try {
-            execute(message);
+            return execute(message);
         } catch (TelegramApiException e) {
             LOGGER.error("Failed to send message to user", e);
+            return null;
+        }
+    }
+
+    private void editTextMessage(long chatId, int messageId, String text) {
+        EditMessageText message = new EditMessageText();
+        message.setChatId(String.valueOf(chatId));
+        message.setMessageId(messageId);
+        message.setText(text);
+        try {
+            execute(message);
+        } catch (TelegramApiException e) {
+            LOGGER.warn("Failed to edit message {}: {}", messageId, e.getMessage());
+        }
+    }
+
+    private static String queueStatusText(int position) {
+        if (position <= 0) {
+            return "✅ Your request has been received and is being processed...";
+        }
+        return "✅ Your request has been received. Position in queue: " + position;
+    }
+
+    /**
+     * keeps the status message of a queued request in sync with its position.
+     * Positions may arrive before the status message is sent, then only the latest one is shown afterwards.
+     */
+    private final class QueuePositionReporter implements IntConsumer {
+
+        private final long chatId;
+        private Integer statusMessageId;
+        private int shownPosition = -1;
+        private int position = -1;
+
+        private QueuePositionReporter(long chatId) {
+            this.chatId = chatId;
+        }
+
+        @Override
+        public synchronized void accept(int position) {
+            this.position = position;
+            refresh();
+        }
+
+        private synchronized void attach(Message statusMessage, int shownPosition) {
+            if (statusMessage == null) {
+                return;
+            }
+            this.statusMessageId = statusMessage.getMessageId();
+            this.shownPosition = shownPosition;
+            refresh();
+        }
+
+        private void refresh() {
+            if (statusMessageId == null || position < 0 || position == shownPosition) {
+                return;
+            }
+            shownPosition = position;
+            editTextMessage(chatId, statusMessageId, queueStatusText(position));
+        }
+    }
+
+    private static DefaultBotOptions botOptions(BotConfig botConfig) {
+        DefaultBotOptions options = new DefaultBotOptions();
+        String apiUrl = botConfig.getApiUrl();
+        // the library builds method urls as baseUrl + token + "/" + method, the base keeps its /bot suffix
+        if (apiUrl != null && !apiUrl.isBlank()) {
+            options.setBaseUrl(apiUrl.replaceAll("/+$", ""));
         }
+        return options;
     }
 
     @Override
@@ -16,6 +16,11 @@ public class BotConfig {
 	@Value("${bot.token}")
 	private String token;
 
+	// Telegram Bot API base url, may point to a local bot api server or a stand-in. The token is appended to it as is,
+	// so a custom base must end with /bot, e.g. http://localhost:8081/bot
+	@Value("${bot.api-url:https://api.telegram.org/bot}")
+	private String apiUrl;
+
 	public BotConfig() {
 	}
 
@@ -32,6 +37,10 @@ public class BotConfig {
 		return this.token;
 	}
 
+	public String getApiUrl() {
+		return this.apiUrl;
+	}
+
 	@Override
 	public boolean equals(final Object o) {
 		if (this == o) {
@@ -1,25 +1,64 @@
 package com.petproject.pokemoncardgenerator.services.telegrambot.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
 import com.petproject.pokemoncardgenerator.services.telegrambot.TelegramBot;
 
+/**
+ * starts receiving updates: either a long polling session (bot.mode=polling, default), or registers the webhook of
+ * {@link com.petproject.pokemoncardgenerator.services.telegrambot.webhook.TelegramWebhookController} (bot.mode=webhook)
+ */
 @Component
+@ConditionalOnProperty(name = "bot.enabled", havingValue = "true", matchIfMissing = true)
 public class BotInitializer {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(BotInitializer.class);
+
+	public static final String WEBHOOK_MODE = "webhook";
+
 	private final TelegramBot telegramBot;
 
+	@Value("${bot.mode:polling}")
+	private String mode;
+
+	// public url of this service (or of the load balancer in front of it), the webhook path is appended to it
+	@Value("${bot.webhook.url:}")
+	private String webhookUrl;
+
+	@Value("${bot.webhook.path:/telegram/webhook}")
+	private String webhookPath;
+
+	@Value("${bot.webhook.secret-token:}")
+	private String webhookSecretToken;
+
+	@Value("${bot.webhook.max-connections:40}")
+	private int webhookMaxConnections;
+
+	// false leaves the webhook as it is, e.g. when it is managed by deployment and several nodes share it
+	@Value("${bot.webhook.register:true}")
+	private boolean registerWebhook;
+
 	public BotInitializer(TelegramBot telegramBot) {
 		this.telegramBot = telegramBot;
 	}
 
 	@EventListener({ ContextRefreshedEvent.class })
 	public void init() {
+		if (WEBHOOK_MODE.equalsIgnoreCase(mode)) {
+			initWebhook();
+			return;
+		}
+
 		TelegramBotsApi telegramBotsApi = null;
 		try {
 			telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
@@ -29,4 +68,27 @@ public class BotInitializer {
 		}
 
 	}
+
+	private void initWebhook() {
+		if (!registerWebhook) {
+			LOGGER.info("Webhook mode, registration of the webhook is skipped");
+			return;
+		}
+		if (webhookUrl.isBlank()) {
+			throw new IllegalStateException("bot.webhook.url must be set in webhook mode");
+		}
+
+		String url = webhookUrl.replaceAll("/+$", "") + webhookPath;
+		SetWebhook setWebhook = SetWebhook.builder()
+				.url(url)
+				.maxConnections(webhookMaxConnections)
+				.secretToken(webhookSecretToken.isBlank() ? null : webhookSecretToken)
+				.build();
+		try {
+			telegramBot.execute(setWebhook);
+			LOGGER.info("Webhook is registered: {}", url);
+		} catch (final TelegramApiException e) {
+			throw new RuntimeException(e);
+		}
+	}
 }
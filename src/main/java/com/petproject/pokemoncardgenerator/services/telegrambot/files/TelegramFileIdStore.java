@@ -0,0 +1,193 @@
+package com.petproject.pokemoncardgenerator.services.telegrambot.files;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * remembers Telegram file_id of every uploaded card by the hash of its content, so that the same card is sent again
+ * by reference instead of uploading its bytes. The store is bounded in LRU order and saved to a JSON file a few
+ * seconds after a change and on shutdown. The file is written to a temporary file first and then atomically moved
+ * in place, so a crash never leaves a broken store behind.
+ */
+@Component
+@ConditionalOnProperty(name = "bot.enabled", havingValue = "true", matchIfMissing = true)
+public class TelegramFileIdStore implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TelegramFileIdStore.class);
+	private static final long SAVE_DELAY_SECONDS = 5;
+
+	private final boolean enabled;
+	private final Path file;
+	private final int maxEntries;
+
+	// kind:contentHash -> file_id, in access order
+	private final LinkedHashMap<String, String> fileIds = new LinkedHashMap<>(16, 0.75f, true);
+	private boolean isSaveScheduled;
+
+	private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(
+			new CustomizableThreadFactory("file-id-store-"));
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public TelegramFileIdStore(@Value("${telegram.file-id.enabled:true}") boolean enabled,
+			@Value("${telegram.file-id.file:cache/telegram-file-ids.json}") String file,
+			@Value("${telegram.file-id.max-entries:20000}") int maxEntries) {
+		this.enabled = enabled;
+		this.file = Path.of(file);
+		this.maxEntries = maxEntries;
+		if (enabled) {
+			load();
+		}
+	}
+
+	/**
+	 * @param kind how the file was sent (e.g. photo), file_id of a photo cannot be used to send a document
+	 * @return file_id of the already uploaded content, or null
+	 */
+	public String get(String kind, String contentHash) {
+		if (!enabled) {
+			return null;
+		}
+		String fileId;
+		synchronized (fileIds) {
+			fileId = fileIds.get(key(kind, contentHash));
+		}
+		(fileId != null ? hits : misses).incrementAndGet();
+		return fileId;
+	}
+
+	public void put(String kind, String contentHash, String fileId) {
+		if (!enabled || fileId == null) {
+			return;
+		}
+		synchronized (fileIds) {
+			fileIds.put(key(kind, contentHash), fileId);
+			Iterator<String> eldest = fileIds.keySet().iterator();
+			while (fileIds.size() > maxEntries && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+			}
+			scheduleSave();
+		}
+	}
+
+	/**
+	 * drops file_id, which Telegram refused to send
+	 */
+	public void invalidate(String kind, String contentHash) {
+		if (!enabled) {
+			return;
+		}
+		synchronized (fileIds) {
+			if (fileIds.remove(key(kind, contentHash)) != null) {
+				scheduleSave();
+			}
+		}
+	}
+
+	@Override
+	public String getStatsName() {
+		return "telegramFileIds";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("hits", hits.get());
+		stats.put("misses", misses.get());
+		synchronized (fileIds) {
+			stats.put("size", fileIds.size());
+		}
+		return stats;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		saver.shutdownNow();
+		if (enabled) {
+			save();
+		}
+	}
+
+	private static String key(String kind, String contentHash) {
+		return kind + ":" + contentHash;
+	}
+
+	/**
+	 * must be called holding the lock, changes within the delay are saved together
+	 */
+	private void scheduleSave() {
+		if (!isSaveScheduled && !saver.isShutdown()) {
+			isSaveScheduled = true;
+			saver.schedule(this::save, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+
+	private void save() {
+		String content;
+		synchronized (fileIds) {
+			isSaveScheduled = false;
+			content = JSON.toJSONString(fileIds);
+		}
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try {
+				Files.writeString(temp, content, StandardCharsets.UTF_8);
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException e) {
+			LOGGER.error("Failed to save Telegram file ids to {}", file, e);
+		}
+	}
+
+	private void load() {
+		if (!Files.exists(file)) {
+			return;
+		}
+		try {
+			LinkedHashMap<String, String> stored = JSON.parseObject(Files.readString(file, StandardCharsets.UTF_8),
+					new TypeReference<LinkedHashMap<String, String>>() {
+
+					});
+			if (stored != null) {
+				// kept in LRU order, so the most recently used ones survive a smaller limit
+				stored.forEach(fileIds::put);
+				while (fileIds.size() > maxEntries) {
+					fileIds.remove(fileIds.keySet().iterator().next());
+				}
+			}
+			LOGGER.info("Loaded {} Telegram file ids from {}", fileIds.size(), file);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Failed to load Telegram file ids from {}, starting empty", file, e);
+		}
+	}
+}
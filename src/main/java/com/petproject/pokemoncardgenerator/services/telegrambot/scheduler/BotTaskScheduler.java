@@ -0,0 +1,275 @@
+package com.petproject.pokemoncardgenerator.services.telegrambot.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.petproject.pokemoncardgenerator.services.stats.StatsSource;
+import com.petproject.pokemoncardgenerator.services.threads.ThreadFactoryProvider;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * two separate schedulers of the bot: a lightweight dispatcher for parsing updates and answering simple commands,
+ * and a bounded executor for long card generations (a virtual thread per generation with threads.virtual.enabled,
+ * the number of running generations is capped in both modes).
+ * Generations never take dispatcher threads, so incoming updates are handled even when all generation slots are
+ * busy. Both of them reject work over their capacity instead of blocking, the caller decides how to tell the user.
+ * Waiting generations are started in weighted round-robin order across chats (see {@link FairGenerationQueue}),
+ * submitters are told about their queue position whenever it changes. Position updates of a task are coalesced, a
+ * task waits for at most one delivery and gets only its latest position, so a burst of moves costs one message edit
+ * per task instead of one per move.
+ */
+@Component
+@ConditionalOnProperty(name = "bot.enabled", havingValue = "true", matchIfMissing = true)
+public class BotTaskScheduler implements StatsSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BotTaskScheduler.class);
+
+	private final ThreadPoolExecutor dispatcher;
+	private final ExecutorService generationPool;
+	// position updates are delivered one by one, so that a user never sees an outdated position last.
+	// Holds at most one delivery per task, its queue is bounded by the number of tasks the scheduler admits
+	private final ThreadPoolExecutor positionNotifier;
+
+	private final FairGenerationQueue generationQueue;
+	// generations allowed to run at once, the rest waits in the fair queue
+	private final int maxRunningGenerations;
+
+	private final AtomicLong rejectedUpdates = new AtomicLong();
+	private final AtomicLong rejectedGenerations = new AtomicLong();
+	private final AtomicLong rejectedChatGenerations = new AtomicLong();
+	private final AtomicLong coalescedPositions = new AtomicLong();
+	private final AtomicLong droppedPositions = new AtomicLong();
+
+	public BotTaskScheduler(@Value("${bot.dispatcher.threads:4}") int dispatcherThreads,
+			@Value("${bot.dispatcher.queue-capacity:500}") int dispatcherQueueCapacity,
+			@Value("${bot.generation.threads:10}") int generationThreads,
+			@Value("${bot.generation.queue-capacity:50}") int generationQueueCapacity,
+			@Value("${bot.generation.max-running:0}") int maxRunning,
+			@Value("${bot.generation.chat-backlog:5}") int chatBacklog,
+			@Value("${bot.generation.chat-max-concurrent:2}") int chatMaxConcurrent,
+			@Value("${bot.generation.default-weight:1}") int defaultWeight,
+			@Value("${bot.generation.chat-weights:}") String chatWeights,
+			ThreadFactoryProvider threadFactoryProvider) {
+		this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(dispatcherQueueCapacity), threadFactoryProvider.newThreadFactory("update-dispatcher-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		// never holds more than maxRunningGenerations tasks, waiting generations are kept in the fair queue.
+		// With virtual threads every started generation gets its own thread
+		this.generationPool = threadFactoryProvider.newExecutor("card-generation-", generationThreads);
+		this.generationQueue = new FairGenerationQueue(generationQueueCapacity, chatBacklog, chatMaxConcurrent,
+				defaultWeight, parseWeights(chatWeights));
+		// 0 takes the number of generation threads, platform threads cannot run more than that
+		int cap = maxRunning > 0 ? maxRunning : generationThreads;
+		this.maxRunningGenerations = threadFactoryProvider.isVirtual() ? cap : Math.min(cap, generationThreads);
+		// finished tasks may still wait for their last delivery, hence twice the admitted ones
+		this.positionNotifier = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, 2 * (generationQueueCapacity + maxRunningGenerations))),
+				threadFactoryProvider.newThreadFactory("queue-position-"), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * @return false if the dispatcher queue is full and the update was not accepted
+	 */
+	public boolean dispatch(Runnable task) {
+		try {
+			dispatcher.execute(task);
+			return true;
+		} catch (RejectedExecutionException e) {
+			rejectedUpdates.incrementAndGet();
+			LOGGER.warn("Update dispatcher is full ({} queued), update rejected", dispatcher.getQueue().size());
+			return false;
+		}
+	}
+
+	/**
+	 * queues the generation of the chat, it is started as soon as it is the chat's turn and there is a free slot.
+	 * @param positionListener receives the new estimated position whenever it changes, 0 when the generation starts
+	 */
+	public GenerationSubmission submitGeneration(long chatId, Runnable task, IntConsumer positionListener) {
+		FairGenerationQueue.Task queuedTask = new FairGenerationQueue.Task(chatId, task, positionListener);
+		GenerationSubmission.Status status;
+		synchronized (generationQueue) {
+			status = generationQueue.offer(queuedTask);
+		}
+
+		if (status == GenerationSubmission.Status.QUEUE_FULL) {
+			rejectedGenerations.incrementAndGet();
+			LOGGER.warn("Generation queue is full, generation of chat {} rejected", chatId);
+			return new GenerationSubmission(status, -1);
+		}
+		if (status == GenerationSubmission.Status.CHAT_BACKLOG_FULL) {
+			rejectedChatGenerations.incrementAndGet();
+			LOGGER.warn("Chat {} has too many generations waiting, generation rejected", chatId);
+			return new GenerationSubmission(status, -1);
+		}
+
+		startGenerations();
+		synchronized (generationQueue) {
+			return new GenerationSubmission(status, queuedTask.getPosition());
+		}
+	}
+
+	/**
+	 * starts generations while there are free slots and notifies waiting ones about their new positions
+	 */
+	private void startGenerations() {
+		List<FairGenerationQueue.Task> started = new ArrayList<>();
+		List<FairGenerationQueue.Task> moved;
+		synchronized (generationQueue) {
+			FairGenerationQueue.Task task;
+			while ((task = generationQueue.poll(maxRunningGenerations)) != null) {
+				task.setPosition(0);
+				task.setReportedPosition(0);
+				started.add(task);
+			}
+			moved = generationQueue.updatePositions();
+			// taken under the lock, a concurrent pass cannot overwrite a newer position with an older one
+			for (FairGenerationQueue.Task movedTask : moved) {
+				movedTask.setReportedPosition(movedTask.getPosition());
+			}
+		}
+
+		for (FairGenerationQueue.Task task : started) {
+			try {
+				generationPool.execute(() -> runGeneration(task));
+			} catch (RejectedExecutionException e) {
+				LOGGER.warn("Generation pool is shut down, generation is dropped");
+				synchronized (generationQueue) {
+					generationQueue.finished(task);
+				}
+				continue;
+			}
+			notifyPosition(task);
+		}
+		for (FairGenerationQueue.Task task : moved) {
+			notifyPosition(task);
+		}
+	}
+
+	private void runGeneration(FairGenerationQueue.Task task) {
+		try {
+			task.getRunnable().run();
+		} finally {
+			synchronized (generationQueue) {
+				generationQueue.finished(task);
+			}
+			startGenerations();
+		}
+	}
+
+	/**
+	 * queues the delivery of the latest reported position of the task, unless one is already waiting
+	 */
+	private void notifyPosition(FairGenerationQueue.Task task) {
+		if (!task.markDeliveryQueued()) {
+			coalescedPositions.incrementAndGet();
+			return;
+		}
+		try {
+			positionNotifier.execute(() -> deliverPosition(task));
+		} catch (RejectedExecutionException e) {
+			// shutting down or far behind, the next move of the task reports its position again
+			task.clearDeliveryQueued();
+			droppedPositions.incrementAndGet();
+		}
+	}
+
+	private void deliverPosition(FairGenerationQueue.Task task) {
+		// cleared first, a position reported from now on queues a new delivery
+		task.clearDeliveryQueued();
+		int position = task.getReportedPosition();
+		if (position == task.getDeliveredPosition()) {
+			return;
+		}
+		task.setDeliveredPosition(position);
+		try {
+			task.getPositionListener().accept(position);
+		} catch (Exception e) {
+			LOGGER.warn("Failed to report queue position", e);
+		}
+	}
+
+	@Override
+	public String getStatsName() {
+		return "botScheduler";
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		Map<String, Object> dispatcherStats = executorStats(dispatcher);
+		dispatcherStats.put("queueRemainingCapacity", dispatcher.getQueue().remainingCapacity());
+		dispatcherStats.put("rejected", rejectedUpdates.get());
+		stats.put("dispatcher", dispatcherStats);
+		if (generationPool instanceof ThreadPoolExecutor pool) {
+			stats.put("generation", executorStats(pool));
+		}
+		synchronized (generationQueue) {
+			Map<String, Object> queueStats = new LinkedHashMap<>();
+			queueStats.put("running", generationQueue.getRunning());
+			queueStats.put("maxRunning", maxRunningGenerations);
+			queueStats.put("queued", generationQueue.getQueued());
+			queueStats.put("chats", generationQueue.getChats());
+			queueStats.put("rejectedFull", rejectedGenerations.get());
+			queueStats.put("rejectedChatBacklog", rejectedChatGenerations.get());
+			stats.put("generationQueue", queueStats);
+		}
+		Map<String, Object> notifierStats = executorStats(positionNotifier);
+		notifierStats.put("coalesced", coalescedPositions.get());
+		notifierStats.put("dropped", droppedPositions.get());
+		stats.put("positionNotifier", notifierStats);
+		return stats;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		dispatcher.shutdown();
+		generationPool.shutdown();
+		positionNotifier.shutdown();
+	}
+
+	/**
+	 * @param chatWeights comma separated chatId:weight pairs
+	 */
+	private static Map<Long, Integer> parseWeights(String chatWeights) {
+		Map<Long, Integer> weights = new HashMap<>();
+		for (String pair : chatWeights.split(",")) {
+			String[] parts = pair.trim().split(":");
+			if (parts.length != 2) {
+				continue;
+			}
+			try {
+				weights.put(Long.parseLong(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid chat weight is ignored: {}", pair);
+			}
+		}
+		return weights;
+	}
+
+	private static Map<String, Object> executorStats(ThreadPoolExecutor executor) {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("active", executor.getActiveCount());
+		stats.put("poolSize", executor.getPoolSize());
+		stats.put("queued", executor.getQueue().size());
+		stats.put("completed", executor.getCompletedTaskCount());
+		return stats;
+	}
+}
@@ -0,0 +1,233 @@
+package com.petproject.pokemoncardgenerator.services.telegrambot.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * weighted round-robin queue of card generations, one backlog per chat.
+ * Chats with waiting generations take turns; in its turn a chat starts up to its weight generations, unless it
+ * already runs as many as the per-chat cap allows. A burst from one chat therefore only fills that chat's backlog
+ * and delays other chats by at most one turn. Not thread-safe on its own, guarded by {@link BotTaskScheduler}.
+ */
+class FairGenerationQueue {
+
+	private final int capacity;
+	private final int chatBacklog;
+	private final int chatMaxConcurrent;
+	private final int defaultWeight;
+	private final Map<Long, Integer> weights;
+
+	private final Map<Long, ChatQueue> chats = new HashMap<>();
+	// chats having waiting generations, the head is the chat whose turn it is
+	private final Deque<ChatQueue> ring = new ArrayDeque<>();
+	private int queued;
+	private int running;
+
+	FairGenerationQueue(int capacity, int chatBacklog, int chatMaxConcurrent, int defaultWeight,
+			Map<Long, Integer> weights) {
+		this.capacity = capacity;
+		this.chatBacklog = chatBacklog;
+		this.chatMaxConcurrent = chatMaxConcurrent;
+		this.defaultWeight = Math.max(1, defaultWeight);
+		this.weights = weights;
+	}
+
+	GenerationSubmission.Status offer(Task task) {
+		if (queued >= capacity) {
+			return GenerationSubmission.Status.QUEUE_FULL;
+		}
+		ChatQueue chat = chats.computeIfAbsent(task.chatId,
+				id -> new ChatQueue(Math.max(1, weights.getOrDefault(id, defaultWeight))));
+		if (chat.tasks.size() >= chatBacklog) {
+			return GenerationSubmission.Status.CHAT_BACKLOG_FULL;
+		}
+
+		chat.tasks.addLast(task);
+		queued++;
+		if (!chat.inRing) {
+			chat.inRing = true;
+			ring.addLast(chat);
+		}
+		return GenerationSubmission.Status.ACCEPTED;
+	}
+
+	/**
+	 * @return next generation to start, or null if nothing is waiting or every waiting chat is at its cap
+	 */
+	Task poll(int maxRunning) {
+		if (running >= maxRunning) {
+			return null;
+		}
+		for (int visited = ring.size(); visited > 0; visited--) {
+			ChatQueue chat = ring.peekFirst();
+			if (chat.running < chatMaxConcurrent) {
+				Task task = chat.tasks.pollFirst();
+				queued--;
+				running++;
+				chat.running++;
+				chat.servedInTurn++;
+				if (chat.servedInTurn >= chat.weight || chat.tasks.isEmpty()) {
+					endTurn(chat);
+				}
+				return task;
+			}
+			endTurn(chat);
+		}
+		return null;
+	}
+
+	void finished(Task task) {
+		running--;
+		ChatQueue chat = chats.get(task.chatId);
+		chat.running--;
+		if (chat.running == 0 && chat.tasks.isEmpty()) {
+			chats.remove(task.chatId);
+		}
+	}
+
+	/**
+	 * recomputes queue positions by replaying the round-robin order, per-chat caps are not taken into account.
+	 * @return generations whose position changed since the previous call, positions are stored in the tasks
+	 */
+	List<Task> updatePositions() {
+		List<Task> moved = new ArrayList<>();
+		List<ChatQueue> order = new ArrayList<>(ring);
+		List<Iterator<Task>> turns = new ArrayList<>();
+		for (ChatQueue chat : order) {
+			turns.add(chat.tasks.iterator());
+		}
+
+		int position = 0;
+		// the chat at the head may have already used a part of its current turn
+		int headServed = order.isEmpty() ? 0 : order.get(0).servedInTurn;
+		while (!turns.isEmpty()) {
+			for (int i = 0; i < turns.size(); i++) {
+				Iterator<Task> tasks = turns.get(i);
+				int quota = order.get(i).weight - headServed;
+				headServed = 0;
+				for (int taken = 0; taken < quota && tasks.hasNext(); taken++) {
+					Task task = tasks.next();
+					position++;
+					if (task.position != position) {
+						if (task.position > 0) {
+							moved.add(task);
+						}
+						task.position = position;
+					}
+				}
+			}
+			for (int i = turns.size() - 1; i >= 0; i--) {
+				if (!turns.get(i).hasNext()) {
+					turns.remove(i);
+					order.remove(i);
+				}
+			}
+		}
+		return moved;
+	}
+
+	int getQueued() {
+		return queued;
+	}
+
+	int getRunning() {
+		return running;
+	}
+
+	int getChats() {
+		return chats.size();
+	}
+
+	private void endTurn(ChatQueue chat) {
+		ring.pollFirst();
+		chat.servedInTurn = 0;
+		if (chat.tasks.isEmpty()) {
+			chat.inRing = false;
+		} else {
+			ring.addLast(chat);
+		}
+	}
+
+	static final class Task {
+
+		private final long chatId;
+		private final Runnable runnable;
+		private final IntConsumer positionListener;
+		// 1-based estimated position while waiting, 0 once started
+		private int position;
+		// position reporting: the latest reported position, the one last delivered to the listener (touched by the
+		// single notifier thread only) and whether a delivery is waiting in the notifier
+		private volatile int reportedPosition = -1;
+		private int deliveredPosition = -1;
+		private final AtomicBoolean deliveryQueued = new AtomicBoolean();
+
+		Task(long chatId, Runnable runnable, IntConsumer positionListener) {
+			this.chatId = chatId;
+			this.runnable = runnable;
+			this.positionListener = positionListener;
+		}
+
+		Runnable getRunnable() {
+			return runnable;
+		}
+
+		IntConsumer getPositionListener() {
+			return positionListener;
+		}
+
+		int getPosition() {
+			return position;
+		}
+
+		void setPosition(int position) {
+			this.position = position;
+		}
+
+		int getReportedPosition() {
+			return reportedPosition;
+		}
+
+		void setReportedPosition(int reportedPosition) {
+			this.reportedPosition = reportedPosition;
+		}
+
+		int getDeliveredPosition() {
+			return deliveredPosition;
+		}
+
+		void setDeliveredPosition(int deliveredPosition) {
+			this.deliveredPosition = deliveredPosition;
+		}
+
+		/**
+		 * @return false if a delivery is already queued, it will pick up the latest position
+		 */
+		boolean markDeliveryQueued() {
+			return deliveryQueued.compareAndSet(false, true);
+		}
+
+		void clearDeliveryQueued() {
+			deliveryQueued.set(false);
+		}
+	}
+
+	private static final class ChatQueue {
+
+		private final int weight;
+		private final Deque<Task> tasks = new ArrayDeque<>();
+		private int running;
+		private int servedInTurn;
+		private boolean inRing;
+
+		private ChatQueue(int weight) {
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.petproject.pokemoncardgenerator.services.telegrambot.scheduler;
+
+/**
+ * outcome of submitting a card generation to {@link BotTaskScheduler}
+ */
+public final class GenerationSubmission {
+
+	public enum Status {
+		ACCEPTED,
+		// the chat already has as many generations waiting as allowed
+		CHAT_BACKLOG_FULL,
+		// all chats together have as many generations waiting as allowed
+		QUEUE_FULL
+	}
+
+	private final Status status;
+	private final int position;
+
+	GenerationSubmission(Status status, int position) {
+		this.status = status;
+		this.position = position;
+	}
+
+	public boolean isAccepted() {
+		return status == Status.ACCEPTED;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return estimated 1-based position in the queue, 0 if the generation has already started
+	 */
+	public int getPosition() {
+		return position;
+	}
+}
@@ -0,0 +1,62 @@
+package com.petproject.pokemoncardgenerator.services.telegrambot.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import com.petproject.pokemoncardgenerator.services.telegrambot.TelegramBot;
+
+/**
+ * receives updates pushed by Telegram in webhook mode.
+ * Updates are handed to the same dispatcher as in polling mode and acknowledged right away, the processing happens
+ * after the response. Any node behind a load balancer can take any update, as long as all of them share the token.
+ */
+@RestController
+@ConditionalOnExpression("'${bot.mode:polling}' == 'webhook' and ${bot.enabled:true}")
+public class TelegramWebhookController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TelegramWebhookController.class);
+
+	private static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+	private final TelegramBot telegramBot;
+
+	@Value("${bot.webhook.secret-token:}")
+	private String secretToken;
+
+	public TelegramWebhookController(TelegramBot telegramBot) {
+		this.telegramBot = telegramBot;
+	}
+
+	@PostMapping("${bot.webhook.path:/telegram/webhook}")
+	public ResponseEntity<Void> receiveUpdate(
+			@RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String requestSecretToken,
+			@RequestBody Update update) {
+		if (!isAuthorized(requestSecretToken)) {
+			LOGGER.warn("Webhook call with invalid secret token rejected");
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+
+		telegramBot.onUpdateReceived(update);
+		return ResponseEntity.ok().build();
+	}
+
+	private boolean isAuthorized(String requestSecretToken) {
+		if (secretToken.isBlank()) {
+			return true;
+		}
+		return requestSecretToken != null && MessageDigest.isEqual(
+				secretToken.getBytes(StandardCharsets.UTF_8), requestSecretToken.getBytes(StandardCharsets.UTF_8));
+	}
+}
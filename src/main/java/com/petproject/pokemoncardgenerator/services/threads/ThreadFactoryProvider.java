@@ -0,0 +1,88 @@
+package com.petproject.pokemoncardgenerator.services.threads;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * thread factories and executors for the bot and generation work.
+ * With threads.virtual.enabled=true and a Java 21+ runtime, executors from {@link #newExecutor} start a virtual
+ * thread per task instead of keeping a fixed pool, so the number of threads no longer bounds concurrency; calls to
+ * the models are bounded by the upstream limits (ai.upstream.*) alone. The project targets Java 17, so virtual
+ * threads are created reflectively; on older runtimes platform threads are used.
+ */
+@Component
+public class ThreadFactoryProvider {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThreadFactoryProvider.class);
+
+	private final boolean isVirtual;
+
+	public ThreadFactoryProvider(@Value("${threads.virtual.enabled:false}") boolean isVirtualRequested) {
+		boolean isSupported = isVirtualRequested && virtualThreadFactory("probe-") != null;
+		if (isVirtualRequested && !isSupported) {
+			LOGGER.warn("Virtual threads are requested, but not supported by Java {}. Platform threads are used.",
+					Runtime.version().feature());
+		}
+		this.isVirtual = isSupported;
+		LOGGER.info("Executors run on {} threads", isVirtual ? "virtual" : "platform");
+	}
+
+	public ThreadFactory newThreadFactory(String namePrefix) {
+		if (isVirtual) {
+			ThreadFactory factory = virtualThreadFactory(namePrefix);
+			if (factory != null) {
+				return factory;
+			}
+		}
+		return new CustomizableThreadFactory(namePrefix);
+	}
+
+	/**
+	 * @param platformThreads size of the fixed pool used with platform threads, ignored with virtual threads
+	 */
+	public ExecutorService newExecutor(String namePrefix, int platformThreads) {
+		if (isVirtual) {
+			ExecutorService executor = threadPerTaskExecutor(virtualThreadFactory(namePrefix));
+			if (executor != null) {
+				return executor;
+			}
+		}
+		return Executors.newFixedThreadPool(platformThreads, newThreadFactory(namePrefix));
+	}
+
+	public boolean isVirtual() {
+		return isVirtual;
+	}
+
+	private static ExecutorService threadPerTaskExecutor(ThreadFactory factory) {
+		if (factory == null) {
+			return null;
+		}
+		try {
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, factory);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static ThreadFactory virtualThreadFactory(String namePrefix) {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method name = builderClass.getMethod("name", String.class, long.class);
+			builder = name.invoke(builder, namePrefix, 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.petproject.pokemoncardgenerator.model.Pokemon;
+
+class BatchCardRendererTest {
+
+	private static final int CARDS = 40;
+
+	// the card is as wide as the name says, later cards finish first to shuffle the completion order
+	private final BatchCardRenderer batchRenderer = new BatchCardRenderer((pokemon, pokemonImage) -> {
+		if (pokemon.getName().equals("broken")) {
+			throw new IllegalStateException("broken card");
+		}
+		if (pokemon.getName().equals("no-template")) {
+			return null;
+		}
+		int width = Integer.parseInt(pokemon.getName());
+		LockSupport.parkNanos((CARDS - width) * 200_000L);
+		return new BufferedImage(width, 1, BufferedImage.TYPE_INT_ARGB);
+	}, 4);
+
+	@AfterEach
+	void shutdown() {
+		batchRenderer.shutdown();
+	}
+
+	@Test
+	void resultsKeepTheOrderOfTheInput() {
+		List<Pokemon> pokemons = new ArrayList<>();
+		for (int i = 1; i <= CARDS; i++) {
+			pokemons.add(Pokemon.builder().name(String.valueOf(i)).build());
+		}
+
+		List<BatchRenderResult> results = batchRenderer.renderAll(pokemons, artworks(CARDS));
+
+		assertThat(results).hasSize(CARDS);
+		for (int i = 0; i < CARDS; i++) {
+			assertThat(results.get(i).getIndex()).isEqualTo(i);
+			assertThat(results.get(i).isSuccessful()).isTrue();
+			assertThat(results.get(i).getCard().getWidth()).isEqualTo(i + 1);
+		}
+	}
+
+	@Test
+	void failedCardsDoNotAffectTheOthers() {
+		List<Pokemon> pokemons = List.of(
+				Pokemon.builder().name("1").build(),
+				Pokemon.builder().name("broken").build(),
+				Pokemon.builder().name("3").build(),
+				Pokemon.builder().name("no-template").build(),
+				Pokemon.builder().name("5").build(),
+				Pokemon.builder().name("6").build());
+		List<BufferedImage> artworks = artworks(pokemons.size());
+		artworks.set(4, null);
+
+		List<BatchRenderResult> results = batchRenderer.renderAll(pokemons, artworks);
+
+		assertThat(results).extracting(BatchRenderResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+		assertThat(results).extracting(BatchRenderResult::isSuccessful)
+				.containsExactly(true, false, true, false, false, true);
+		assertThat(results.get(1).getError()).isInstanceOf(IllegalStateException.class).hasMessage("broken card");
+		assertThat(results.get(3).getError()).hasMessage("Card template is absent");
+		assertThat(results.get(4).getError()).isInstanceOf(IllegalArgumentException.class);
+		assertThat(results.get(0).getCard().getWidth()).isEqualTo(1);
+		assertThat(results.get(2).getCard().getWidth()).isEqualTo(3);
+		assertThat(results.get(5).getCard().getWidth()).isEqualTo(6);
+	}
+
+	@Test
+	void rejectsArtworkOfAnotherSize() {
+		assertThatThrownBy(() -> batchRenderer.renderAll(List.of(Pokemon.builder().name("1").build()), artworks(2)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<BufferedImage> artworks(int count) {
+		BufferedImage[] artworks = new BufferedImage[count];
+		Arrays.fill(artworks, new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+		return new ArrayList<>(Arrays.asList(artworks));
+	}
+}
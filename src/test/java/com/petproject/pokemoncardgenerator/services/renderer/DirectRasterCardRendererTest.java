@@ -0,0 +1,107 @@
+package com.petproject.pokemoncardgenerator.services.renderer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.petproject.pokemoncardgenerator.model.Pokemon;
+import com.petproject.pokemoncardgenerator.model.details.Ability;
+import com.petproject.pokemoncardgenerator.model.details.enums.PokemonElement;
+import com.petproject.pokemoncardgenerator.model.details.enums.Rarity;
+import com.petproject.pokemoncardgenerator.services.renderer.scaling.ImageScalingEngine;
+import com.petproject.pokemoncardgenerator.services.renderer.scaling.ScalingMode;
+
+/**
+ * the direct raster renderer must produce the same pixels as the default one
+ */
+class DirectRasterCardRendererTest {
+
+	private static final String LONG_DESCRIPTION = "It hunts in the deep blue and sleeps on coral beds, dreaming of "
+			+ "storms that shake the reef. Sailors say its fin cuts the waves before a tempest, and that whoever "
+			+ "sees it twice in one voyage will never see the harbour again.";
+
+	private static CardRenderer cardRenderer;
+	private static DirectRasterCardRenderer directRasterCardRenderer;
+	private static BufferedImage artwork;
+
+	@BeforeAll
+	static void createRenderers() throws IOException {
+		ImageScalingEngine scalingEngine = new ImageScalingEngine(ScalingMode.PROGRESSIVE_BILINEAR);
+		CardAssets cardAssets = new CardAssets(scalingEngine);
+		CardBaseOverlays baseOverlays = new CardBaseOverlays(cardAssets);
+		cardRenderer = new CardRenderer(cardAssets, baseOverlays, scalingEngine, 256, 64);
+		directRasterCardRenderer = new DirectRasterCardRenderer(cardAssets, baseOverlays, scalingEngine);
+		try (InputStream in = DirectRasterCardRendererTest.class.getResourceAsStream(
+				"/generator/cards/images/shark.png")) {
+			artwork = ImageIO.read(in);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = PokemonElement.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+	void rendersTheSamePixelsForEveryElement(PokemonElement element) {
+		List<Pokemon> pokemons = new ArrayList<>();
+		pokemons.add(pokemon(element, Rarity.COMMON, "Short one.",
+				ability("Tackle", element, 1, false)));
+		pokemons.add(pokemon(element, Rarity.UNCOMMON, LONG_DESCRIPTION,
+				ability("Riptide", element, 2, false),
+				ability("Gnash", element, 3, true)));
+		pokemons.add(pokemon(element, Rarity.RARE, LONG_DESCRIPTION + " " + LONG_DESCRIPTION,
+				ability("Stormbreaker Crash", element, 4, true),
+				ability("Body Slam", PokemonElement.NEUTRAL, 2, false)));
+
+		for (Pokemon pokemon : pokemons) {
+			assertSamePixels(cardRenderer.renderCard(pokemon, artwork),
+					directRasterCardRenderer.renderCard(pokemon, artwork));
+		}
+	}
+
+	@Test
+	void reusedBuffersDoNotLeakIntoTheNextCard() {
+		Pokemon first = pokemon(PokemonElement.FIRE, Rarity.RARE, LONG_DESCRIPTION,
+				ability("Flame Wheel", PokemonElement.FIRE, 3, true),
+				ability("Ember", PokemonElement.FIRE, 1, false));
+		Pokemon second = pokemon(PokemonElement.GRASS, Rarity.COMMON, "Quiet.",
+				ability("Leaf", PokemonElement.GRASS, 2, false));
+		BufferedImage smallArtwork = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+
+		directRasterCardRenderer.renderCard(first, artwork);
+		assertSamePixels(cardRenderer.renderCard(second, smallArtwork),
+				directRasterCardRenderer.renderCard(second, smallArtwork));
+	}
+
+	private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+		assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+		assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+		int width = expected.getWidth();
+		int height = expected.getHeight();
+		assertThat(actual.getRGB(0, 0, width, height, null, 0, width))
+				.isEqualTo(expected.getRGB(0, 0, width, height, null, 0, width));
+	}
+
+	private static Pokemon pokemon(PokemonElement element, Rarity rarity, String description, Ability... abilities) {
+		return Pokemon.builder()
+				.name("Sharkle")
+				.hp(90)
+				.element(element)
+				.rarity(rarity)
+				.description(description)
+				.abilities(List.of(abilities))
+				.build();
+	}
+
+	private static Ability ability(String name, PokemonElement element, int cost, boolean isMixedElement) {
+		return Ability.builder().name(name).element(element).cost(cost).isMixedElement(isMixedElement).build();
+	}
+}
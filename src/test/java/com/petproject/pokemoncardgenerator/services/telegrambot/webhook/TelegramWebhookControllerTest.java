@@ -0,0 +1,123 @@
+package com.petproject.pokemoncardgenerator.services.telegrambot.webhook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * webhook mode against a local stand-in for the Telegram Bot API at bot.api-url
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"bot.mode=webhook",
+		"bot.token=TEST_TOKEN",
+		"bot.webhook.register=false",
+		"bot.webhook.secret-token=s3cret",
+		"generativeai=false",
+		"huggingface.api.token=unused",
+		"model.text.url=http://localhost:1/unused",
+		"model.image.url=http://localhost:1/unused" })
+class TelegramWebhookControllerTest {
+
+	private static final String WEBHOOK_PATH = "/telegram/webhook";
+	private static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+	private static final long CHAT_ID = 4242;
+	// the stand-in answers sendMessage this late, the webhook must not wait for it
+	private static final long REPLY_DELAY_MILLIS = 1500;
+
+	private static final BlockingQueue<String> SENT_MESSAGES = new LinkedBlockingQueue<>();
+	private static HttpServer telegramApi;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@DynamicPropertySource
+	static void telegramApiProperties(DynamicPropertyRegistry registry) throws IOException {
+		telegramApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		telegramApi.createContext("/botTEST_TOKEN/", TelegramWebhookControllerTest::answer);
+		telegramApi.start();
+		registry.add("bot.api-url", () -> "http://localhost:" + telegramApi.getAddress().getPort() + "/bot");
+	}
+
+	@AfterAll
+	static void stopTelegramApi() {
+		telegramApi.stop(0);
+	}
+
+	@Test
+	void updateIsAcknowledgedRightAwayAndTheReplyReachesTheApi() throws InterruptedException {
+		ResponseEntity<Void> rejected = postUpdate(1, null);
+		assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+		long start = System.nanoTime();
+		ResponseEntity<Void> accepted = postUpdate(2, "s3cret");
+		long ackMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(ackMillis).isLessThan(REPLY_DELAY_MILLIS);
+
+		String reply = SENT_MESSAGES.poll(10, TimeUnit.SECONDS);
+		assertThat(reply).isNotNull().contains("\"chat_id\":\"" + CHAT_ID + "\"").contains("/create_pokemon");
+		// the rejected update has not been processed
+		assertThat(SENT_MESSAGES.poll(REPLY_DELAY_MILLIS * 2, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	private ResponseEntity<Void> postUpdate(int updateId, String secretToken) {
+		String update = "{\"update_id\":" + updateId + ",\"message\":{\"message_id\":" + updateId + ",\"date\":0,"
+				+ "\"chat\":{\"id\":" + CHAT_ID + ",\"type\":\"private\"},"
+				+ "\"from\":{\"id\":" + CHAT_ID + ",\"is_bot\":false,\"first_name\":\"Ash\"},"
+				+ "\"text\":\"/help\",\"entities\":[{\"type\":\"bot_command\",\"offset\":0,\"length\":5}]}}";
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		if (secretToken != null) {
+			headers.set(SECRET_TOKEN_HEADER, secretToken);
+		}
+		return restTemplate.postForEntity(WEBHOOK_PATH, new HttpEntity<>(update, headers), Void.class);
+	}
+
+	private static void answer(HttpExchange exchange) throws IOException {
+		String body;
+		try (InputStream in = exchange.getRequestBody()) {
+			body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		String result = "true";
+		if (exchange.getRequestURI().getPath().endsWith("/sendmessage")
+				|| exchange.getRequestURI().getPath().endsWith("/sendMessage")) {
+			try {
+				Thread.sleep(REPLY_DELAY_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			SENT_MESSAGES.add(body);
+			result = "{\"message_id\":1,\"date\":0,\"chat\":{\"id\":" + CHAT_ID + ",\"type\":\"private\"}}";
+		}
+
+		byte[] response = ("{\"ok\":true,\"result\":" + result + "}").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+}